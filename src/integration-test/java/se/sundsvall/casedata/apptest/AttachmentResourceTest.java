@@ -9,25 +9,36 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
 import se.sundsvall.casedata.CaseDataApplication;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
+import se.sundsvall.casedata.api.model.AttachmentUploadDTO;
 import se.sundsvall.casedata.api.model.ErrandDTO;
+import se.sundsvall.casedata.integration.db.AttachmentContentRepository;
 import se.sundsvall.casedata.integration.db.AttachmentRepository;
+import se.sundsvall.casedata.integration.db.model.AttachmentContent;
 import se.sundsvall.casedata.integration.db.model.enums.AttachmentCategory;
 import se.sundsvall.casedata.service.util.Constants;
+import se.sundsvall.casedata.service.util.ContentDigest;
 import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
 
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.CONTENT_RANGE;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.RANGE;
 import static se.sundsvall.casedata.TestUtil.OBJECT_MAPPER;
 import static se.sundsvall.casedata.TestUtil.createAttachmentDTO;
 import static se.sundsvall.casedata.TestUtil.createErrandDTO;
@@ -42,6 +53,10 @@ class AttachmentResourceTest extends CustomAbstractAppTest {
 
     @Autowired
     private AttachmentRepository attachmentRepository;
+    @Autowired
+    private AttachmentContentRepository attachmentContentRepository;
+    @Autowired
+    private WebTestClient webTestClient;
 
     @Test
     void test1_GetAttachment() throws JsonProcessingException, ClassNotFoundException {
@@ -95,7 +110,9 @@ class AttachmentResourceTest extends CustomAbstractAppTest {
         assertEquals(attachmentBefore.getVersion() + 1, attachmentAfter.getVersion());
         assertEquals(inputAttachmentDTO.getCategory(), attachmentAfter.getCategory());
         assertEquals(inputAttachmentDTO.getExtension(), attachmentAfter.getExtension());
-        assertEquals(inputAttachmentDTO.getFile(), attachmentAfter.getFile());
+        // The content is not part of the metadata, it is read separately
+        assertNull(attachmentAfter.getFile());
+        assertEquals("test", getContent(attachmentBefore.getId()));
         assertEquals(inputAttachmentDTO.getMimeType(), attachmentAfter.getMimeType());
         assertEquals(inputAttachmentDTO.getName(), attachmentAfter.getName());
         assertEquals(inputAttachmentDTO.getNote(), attachmentAfter.getNote());
@@ -189,6 +206,191 @@ class AttachmentResourceTest extends CustomAbstractAppTest {
         assertEquals(attachmentDTOList.size(), result.getAttachments().size());
     }
 
+    @Test
+    void test9_PutAndGetAttachmentContent() throws JsonProcessingException {
+        ErrandDTO errandDTO = postAndGetErrand(createErrandDTO());
+        Long attachmentId = errandDTO.getAttachments().get(0).getId();
+        byte[] content = new byte[] {0, 1, 2, (byte) 255};
+
+        webTestClient.put().uri("/attachments/{id}/content", attachmentId)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue(content)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/attachments/{id}/content", attachmentId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .expectBody(byte[].class).isEqualTo(content);
+    }
+
+    @Test
+    void test10_SameContentIsStoredOnce() throws JsonProcessingException {
+        var digest = ContentDigest.of("test".getBytes(StandardCharsets.UTF_8));
+        postAndGetErrand(createErrandDTO());
+        int referenceCount = findContents(digest).get(0).getReferenceCount();
+
+        postAndGetErrand(createErrandDTO());
+
+        var contents = findContents(digest);
+        assertEquals(1, contents.size());
+        assertTrue(contents.get(0).getReferenceCount() > referenceCount);
+    }
+
+    @Test
+    void test11_GetAttachmentContentRange() throws JsonProcessingException {
+        ErrandDTO errandDTO = postAndGetErrand(createErrandDTO());
+        Long attachmentId = errandDTO.getAttachments().get(0).getId();
+
+        webTestClient.get().uri("/attachments/{id}/content", attachmentId)
+                .header(RANGE, "bytes=1-2")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().valueEquals(CONTENT_RANGE, "bytes 1-2/4")
+                .expectBody(String.class).isEqualTo("es");
+
+        webTestClient.get().uri("/attachments/{id}/content", attachmentId)
+                .header(RANGE, "bytes=4-")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .expectHeader().valueEquals(CONTENT_RANGE, "bytes */4");
+    }
+
+    @Test
+    void test12_UploadAttachmentInParts() throws JsonProcessingException {
+        ErrandDTO errandDTO = postAndGetErrand(createErrandDTO());
+        String uploadsPath = "/errands/" + errandDTO.getId() + "/attachments/uploads";
+
+        var upload = webTestClient.post().uri(uploadsPath)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AttachmentUploadDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(upload);
+
+        // Parts can be sent in any order, and a part sent again replaces the first one
+        putPart(uploadsPath, upload.getId(), 2, "wor");
+        putPart(uploadsPath, upload.getId(), 1, "hello ");
+        putPart(uploadsPath, upload.getId(), 3, "ld");
+        putPart(uploadsPath, upload.getId(), 2, "wor");
+
+        webTestClient.get().uri(uploadsPath + "/{uploadId}", upload.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.parts[*].partNumber").isEqualTo(List.of(1, 2, 3))
+                .jsonPath("$.parts[*].size").isEqualTo(List.of(6, 3, 2));
+
+        AttachmentDTO attachmentDTO = createAttachmentDTO((AttachmentCategory) getRandomOfEnum(AttachmentCategory.class));
+        attachmentDTO.setFile(null);
+        var location = webTestClient.post().uri(uploadsPath + "/{uploadId}/commit", upload.getId())
+                .bodyValue(attachmentDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getLocation();
+        assertNotNull(location);
+
+        Long attachmentId = Long.valueOf(location.getPath().substring(location.getPath().lastIndexOf('/') + 1));
+        assertEquals("hello world", getContent(attachmentId));
+        webTestClient.get().uri(uploadsPath + "/{uploadId}", upload.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void test13_CommitUploadWithMissingPart() throws JsonProcessingException {
+        ErrandDTO errandDTO = postAndGetErrand(createErrandDTO());
+        String uploadsPath = "/errands/" + errandDTO.getId() + "/attachments/uploads";
+        var upload = webTestClient.post().uri(uploadsPath)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AttachmentUploadDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(upload);
+        putPart(uploadsPath, upload.getId(), 2, "world");
+
+        AttachmentDTO attachmentDTO = createAttachmentDTO((AttachmentCategory) getRandomOfEnum(AttachmentCategory.class));
+        attachmentDTO.setFile(null);
+        webTestClient.post().uri(uploadsPath + "/{uploadId}/commit", upload.getId())
+                .bodyValue(attachmentDTO)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void test14_HistoryRecordsContentDigest() throws JsonProcessingException {
+        ErrandDTO errandDTO = postAndGetErrand(createErrandDTO());
+        Long attachmentId = errandDTO.getAttachments().get(0).getId();
+        byte[] content = "new content".getBytes(StandardCharsets.UTF_8);
+
+        webTestClient.put().uri("/attachments/{id}/content", attachmentId)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue(content)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        var history = webTestClient.get().uri("/attachments/{id}/history", attachmentId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(history);
+        assertTrue(history.contains(ContentDigest.of(content)));
+        assertFalse(history.contains("\"file\""));
+    }
+
+    @Test
+    void test15_StoreSameContentConcurrently() throws JsonProcessingException {
+        var attachmentIds = List.of(postAndGetErrand(createErrandDTO()).getAttachments().get(0).getId(),
+                postAndGetErrand(createErrandDTO()).getAttachments().get(0).getId());
+        byte[] content = ("concurrent " + new Random().nextLong()).getBytes(StandardCharsets.UTF_8);
+
+        var futures = attachmentIds.stream()
+                .map(attachmentId -> CompletableFuture.runAsync(() -> webTestClient.put().uri("/attachments/{id}/content", attachmentId)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .bodyValue(content)
+                        .exchange()
+                        .expectStatus().isNoContent()))
+                .toList();
+        futures.forEach(CompletableFuture::join);
+
+        var contents = findContents(ContentDigest.of(content));
+        assertEquals(1, contents.size());
+        assertEquals(attachmentIds.size(), contents.get(0).getReferenceCount());
+        attachmentIds.forEach(attachmentId -> assertEquals(new String(content, StandardCharsets.UTF_8), getContent(attachmentId)));
+    }
+
+    private void putPart(String uploadsPath, Long uploadId, int partNumber, String content) {
+        webTestClient.put().uri(uploadsPath + "/{uploadId}/parts/{partNumber}", uploadId, partNumber)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue(content.getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    private List<AttachmentContent> findContents(String digest) {
+        return attachmentContentRepository.findAll().stream()
+                .filter(content -> digest.equals(content.getDigest()))
+                .toList();
+    }
+
+    private String getContent(Long attachmentId) {
+        var content = webTestClient.get().uri("/attachments/{id}/content", attachmentId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        return content == null ? null : new String(content, StandardCharsets.UTF_8);
+    }
+
     private ErrandDTO postAndGetErrand(ErrandDTO errandDTO) throws JsonProcessingException {
         setupCall()
                 .withHttpMethod(HttpMethod.POST)
@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import se.sundsvall.casedata.CaseDataApplication;
 import se.sundsvall.casedata.api.model.ErrandDTO;
 import se.sundsvall.casedata.api.model.PatchErrandDTO;
+import se.sundsvall.casedata.integration.db.ErrandNumberSequenceRepository;
 import se.sundsvall.casedata.integration.db.ErrandRepository;
 import se.sundsvall.casedata.integration.db.model.Errand;
 import se.sundsvall.casedata.integration.db.model.enums.CaseType;
@@ -24,9 +25,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static se.sundsvall.casedata.TestUtil.OBJECT_MAPPER;
 import static se.sundsvall.casedata.TestUtil.createErrandDTO;
+import static se.sundsvall.casedata.TestUtil.createNoteDTO;
 import static se.sundsvall.casedata.apptest.util.TestConstants.JWT_HEADER_VALUE;
 import static se.sundsvall.casedata.service.util.Constants.UNKNOWN;
 import static se.sundsvall.casedata.service.util.Constants.X_JWT_ASSERTION_HEADER_KEY;
@@ -36,10 +39,13 @@ class ErrandListenerTest extends CustomAbstractAppTest {
 
     @Autowired
     private ErrandRepository errandRepository;
+    @Autowired
+    private ErrandNumberSequenceRepository errandNumberSequenceRepository;
 
     @BeforeEach
     void beforeEach() {
         errandRepository.deleteAll();
+        errandNumberSequenceRepository.deleteAll();
     }
 
     @Test
@@ -146,4 +152,45 @@ class ErrandListenerTest extends CustomAbstractAppTest {
         List<Errand> resultList = errandRepository.findAll();
         resultList.forEach(errand -> assertFalse(errand.getErrandNumber() == null || errand.getErrandNumber().isBlank()));
     }
+
+    @Test
+    void test5_allocatePerAbbreviationAndYear() {
+        assertEquals(1, errandNumberSequenceRepository.allocate("PRH", 2022, 1));
+        assertEquals(2, errandNumberSequenceRepository.allocate("PRH", 2022, 1));
+        assertEquals(1, errandNumberSequenceRepository.allocate("PRH", 2023, 1));
+        assertEquals(1, errandNumberSequenceRepository.allocate("ENV", 2022, 1));
+        assertEquals(3, errandNumberSequenceRepository.allocate("PRH", 2022, 1));
+        // A block of numbers ends with the last number in the block
+        assertEquals(13, errandNumberSequenceRepository.allocate("PRH", 2022, 10));
+    }
+
+    @Test
+    void test6_childChangeDoesNotIncrementErrandVersion() throws JsonProcessingException {
+        setupCall()
+                .withHttpMethod(HttpMethod.POST)
+                .withServicePath("/errands")
+                .withRequest(OBJECT_MAPPER.writeValueAsString(createErrandDTO()))
+                .withExpectedResponseStatus(HttpStatus.CREATED)
+                .sendRequestAndVerifyResponse();
+
+        Errand errandBeforePatch = errandRepository.findAll().stream().max(Comparator.comparing(Errand::getCreated)).orElseThrow();
+        // Children created together with the errand are not recorded as changes
+        assertNull(errandBeforePatch.getActivity());
+
+        setupCall()
+                .withHttpMethod(HttpMethod.PATCH)
+                .withServicePath(MessageFormat.format("/errands/{0}/notes", errandBeforePatch.getId()))
+                .withHeader(X_JWT_ASSERTION_HEADER_KEY, JWT_HEADER_VALUE)
+                .withHeader(Constants.AD_USER_HEADER_KEY, "PatchUser")
+                .withRequest(OBJECT_MAPPER.writeValueAsString(createNoteDTO()))
+                .withExpectedResponseStatus(HttpStatus.CREATED)
+                .sendRequestAndVerifyResponse();
+
+        Errand errandAfterPatch = errandRepository.findById(errandBeforePatch.getId()).orElseThrow();
+
+        assertEquals(errandBeforePatch.getVersion(), errandAfterPatch.getVersion());
+        assertEquals(1, errandAfterPatch.getActivity().getChildChanges().longValue());
+        assertEquals("PatchUser", errandAfterPatch.getActivity().getLastChildChangeBy());
+        assertNotNull(errandAfterPatch.getActivity().getLastChildChange());
+    }
 }
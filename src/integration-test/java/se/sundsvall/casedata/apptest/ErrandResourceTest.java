@@ -19,6 +19,8 @@ import org.springframework.web.util.UriComponentsBuilder;
 import se.sundsvall.casedata.CaseDataApplication;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
 import se.sundsvall.casedata.api.model.DecisionDTO;
+import se.sundsvall.casedata.api.model.ErrandBatchResultDTO;
+import se.sundsvall.casedata.api.model.ErrandCursorPageDTO;
 import se.sundsvall.casedata.api.model.ErrandDTO;
 import se.sundsvall.casedata.api.model.NoteDTO;
 import se.sundsvall.casedata.api.model.PatchErrandDTO;
@@ -32,12 +34,14 @@ import se.sundsvall.casedata.service.util.Constants;
 import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
@@ -46,6 +50,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static se.sundsvall.casedata.TestUtil.OBJECT_MAPPER;
 import static se.sundsvall.casedata.TestUtil.createAttachmentDTO;
@@ -137,6 +142,135 @@ class ErrandResourceTest extends CustomAbstractAppTest {
                 .isEqualTo(getErrandDTO);
     }
 
+    @Test
+    void testGetErrandByIdWithFields() {
+        ErrandDTO inputErrandDTO = createErrandDTO();
+        String id = postErrand(inputErrandDTO);
+
+        ErrandDTO getErrandDTO = webTestClient.get().uri(
+                        uriBuilder -> uriBuilder
+                                .path("/errands/{id}")
+                                .queryParam("fields", "stakeholders,statuses")
+                                .build(id))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ErrandDTO.class).getResponseBody().blockFirst();
+
+        assertEquals(inputErrandDTO.getStakeholders().size(), Objects.requireNonNull(getErrandDTO).getStakeholders().size());
+        assertEquals(inputErrandDTO.getStatuses().size(), getErrandDTO.getStatuses().size());
+        assertNull(getErrandDTO.getAttachments());
+        assertNull(getErrandDTO.getNotes());
+        assertNull(getErrandDTO.getDecisions());
+        assertNull(getErrandDTO.getFacilities());
+        assertNotNull(getErrandDTO.getErrandNumber());
+    }
+
+    @Test
+    void testGetErrandByIdWithUnknownField() {
+        String id = postErrand(createErrandDTO());
+
+        webTestClient.get().uri("/errands/{id}?fields=unknown", id)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testPostErrandsBatch() {
+        ErrandDTO invalidErrandDTO = createErrandDTO();
+        invalidErrandDTO.setCaseType(null);
+
+        List<ErrandBatchResultDTO> results = webTestClient.post().uri("/errands/batch")
+                .bodyValue(List.of(createErrandDTO(), invalidErrandDTO, createErrandDTO()))
+                .header(X_JWT_ASSERTION_HEADER_KEY, JWT_HEADER_VALUE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ErrandBatchResultDTO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(results).extracting(ErrandBatchResultDTO::getStatus).containsExactly(201, 400, 201);
+        assertThat(results.get(0).getErrandNumber()).isNotBlank().isNotEqualTo(results.get(2).getErrandNumber());
+
+        webTestClient.get().uri("/errands/{id}", results.get(2).getId())
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void testConditionalRequests() {
+        String id = postErrand(createErrandDTO());
+
+        String eTag = webTestClient.get().uri("/errands/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ErrandDTO.class).getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        webTestClient.get().uri("/errands/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        // A representation with only some of the associations has its own ETag
+        String statusesETag = webTestClient.get().uri("/errands/{id}?fields=statuses", id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ErrandDTO.class).getResponseHeaders().getETag();
+        assertNotNull(statusesETag);
+        assertNotEquals(eTag, statusesETag);
+
+        webTestClient.get().uri("/errands/{id}?fields=statuses", id)
+                .header(HttpHeaders.IF_NONE_MATCH, statusesETag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        PatchErrandDTO patchErrandDTO = new PatchErrandDTO();
+        patchErrandDTO.setDescription(RandomStringUtils.random(20, true, false));
+
+        // Any ETag of the current version matches If-Match
+        webTestClient.patch().uri("/errands/{id}", id)
+                .header(HttpHeaders.IF_MATCH, statusesETag)
+                .bodyValue(patchErrandDTO)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // The errand has a new version, so the old ETag no longer matches
+        webTestClient.patch().uri("/errands/{id}", id)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(patchErrandDTO)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.get().uri("/errands/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void testConcurrentChildChangesWithSameIfMatch() {
+        String id = postErrand(createErrandDTO());
+
+        String eTag = webTestClient.get().uri("/errands/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ErrandDTO.class).getResponseHeaders().getETag();
+
+        // Both notes are based on the same version, so only the first one to be committed is added
+        var futures = List.of(createNoteDTO(), createNoteDTO()).stream()
+                .map(noteDTO -> CompletableFuture.supplyAsync(() -> webTestClient.patch().uri("/errands/{id}/notes", id)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .header(X_JWT_ASSERTION_HEADER_KEY, JWT_HEADER_VALUE)
+                        .bodyValue(noteDTO)
+                        .exchange()
+                        .returnResult(Void.class)
+                        .getStatus()))
+                .toList();
+
+        assertThat(futures.stream().map(CompletableFuture::join).toList())
+                .containsExactlyInAnyOrder(HttpStatus.CREATED, HttpStatus.PRECONDITION_FAILED);
+    }
+
     @Test
     void testPatchErrand() {
 
@@ -598,6 +732,51 @@ class ErrandResourceTest extends CustomAbstractAppTest {
                 .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
     }
 
+    @Test
+    void testSearchErrands() throws JsonProcessingException {
+        ErrandDTO inputPostErrandDTO_1 = createErrandDTO();
+        inputPostErrandDTO_1.setDescription("Parkering vid Bergsgatan");
+        String id_1 = postErrand(inputPostErrandDTO_1);
+        ErrandDTO inputPostErrandDTO_2 = createErrandDTO();
+        StakeholderDTO person = inputPostErrandDTO_2.getStakeholders().stream().filter(stakeholderDTO -> stakeholderDTO.getType().equals(StakeholderType.PERSON)).findFirst().orElseThrow();
+        person.getAddresses().get(0).setStreet("Bergsgatan");
+        person.setLastName("Bergström");
+        String id_2 = postErrand(inputPostErrandDTO_2);
+
+        // Create some test data
+        createSomeErrands(5);
+
+        // Words match as prefixes, the errand matching both words is ranked first
+        Page<ErrandDTO> resultList = webTestClient.get().uri(
+                        uriBuilder -> uriBuilder
+                                .path("errands/search")
+                                .queryParam("q", "bergs bergström")
+                                .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON_VALUE)
+                .returnResult(new ParameterizedTypeReference<RestResponsePage<ErrandDTO>>() {
+                }).getResponseBody().blockFirst();
+
+        Assertions.assertEquals(2, Objects.requireNonNull(resultList).getTotalElements());
+        Assertions.assertEquals(Long.valueOf(id_2), resultList.getContent().get(0).getId());
+        Assertions.assertEquals(Long.valueOf(id_1), resultList.getContent().get(1).getId());
+    }
+
+    @Test
+    void testSearchErrands404() throws JsonProcessingException {
+        createSomeErrands(2);
+
+        webTestClient.get().uri(
+                        uriBuilder -> uriBuilder
+                                .path("errands/search")
+                                .queryParam("q", "Bergsgatan")
+                                .build())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+    }
+
     @Test
     void testGetErrandsWithPersonId() throws JsonProcessingException {
         ErrandDTO inputPostErrandDTO_1 = createErrandDTO();
@@ -772,6 +951,105 @@ class ErrandResourceTest extends CustomAbstractAppTest {
         assertEquals(statusDTOList, resultPatch.getStatuses());
     }
 
+    @Test
+    void testGetWithCursor() throws JsonProcessingException {
+        createSomeErrands(5);
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            final var currentCursor = cursor;
+            ErrandCursorPageDTO result = webTestClient.get().uri(
+                            uriBuilder -> uriBuilder
+                                    .path("errands")
+                                    .queryParam("cursor", currentCursor)
+                                    .queryParam("size", "2")
+                                    .queryParam("sort", "created,desc")
+                                    .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .returnResult(ErrandCursorPageDTO.class).getResponseBody().blockFirst();
+
+            assertNotNull(result);
+            assertTrue(result.getContent().size() <= 2);
+            result.getContent().forEach(errandDTO -> ids.add(errandDTO.getId()));
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+
+        // Every errand is returned exactly once
+        assertEquals(5, ids.size());
+        assertEquals(5, ids.stream().distinct().count());
+    }
+
+    @Test
+    void testGetSortedOnCollectionAttribute() throws JsonProcessingException {
+        // Every errand has more than one stakeholder, so the sort matches more than one row per errand
+        createSomeErrands(5);
+
+        List<Long> ids = new ArrayList<>();
+        Page<ErrandDTO> result;
+        int page = 0;
+        do {
+            final var currentPage = page++;
+            result = webTestClient.get().uri(
+                            uriBuilder -> uriBuilder
+                                    .path("errands")
+                                    .queryParam("page", currentPage)
+                                    .queryParam("size", "2")
+                                    .queryParam("sort", "stakeholders.firstName,desc")
+                                    .queryParam("fields", "statuses")
+                                    .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .returnResult(new ParameterizedTypeReference<RestResponsePage<ErrandDTO>>() {
+                    }).getResponseBody().blockFirst();
+
+            assertNotNull(result);
+            if (result.hasNext()) {
+                assertEquals(2, result.getNumberOfElements());
+            }
+            result.getContent().forEach(errandDTO -> ids.add(errandDTO.getId()));
+        } while (result.hasNext());
+
+        // Pages are full and every errand is returned exactly once, in agreement with the count
+        assertEquals(result.getTotalElements(), ids.size());
+        assertEquals(ids.size(), ids.stream().distinct().count());
+    }
+
+    @Test
+    void testExportErrands() throws JsonProcessingException {
+        ErrandDTO inputPostErrandDTO = createErrandDTO();
+        inputPostErrandDTO.setExtraParameters(Map.of("key 1", "value 1"));
+        postErrand(inputPostErrandDTO);
+
+        createSomeErrands(3);
+
+        List<ErrandDTO> allErrands = webTestClient.get().uri("errands/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(ErrandDTO.class).getResponseBody().collectList().block();
+
+        assertEquals(4, Objects.requireNonNull(allErrands).size());
+
+        List<ErrandDTO> filteredErrands = webTestClient.get().uri(
+                        uriBuilder -> uriBuilder
+                                .path("errands/export")
+                                .queryParam("extraParameters[key 1]", "value 1")
+                                .build())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ErrandDTO.class).getResponseBody().collectList().block();
+
+        assertEquals(1, Objects.requireNonNull(filteredErrands).size());
+        assertThat(inputPostErrandDTO)
+                .usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(
+                        EXCLUDE_FIELDS)
+                .isEqualTo(filteredErrands.get(0));
+    }
+
     private Page<ErrandDTO> createSomeErrands(int numberOfErrands) throws JsonProcessingException {
         for (int i = 0; i < numberOfErrands; i++) {
             setupCall()
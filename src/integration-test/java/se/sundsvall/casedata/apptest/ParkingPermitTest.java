@@ -9,7 +9,9 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import se.sundsvall.casedata.CaseDataApplication;
 import se.sundsvall.casedata.api.model.GetParkingPermitDTO;
+import se.sundsvall.casedata.api.model.PatchErrandDTO;
 import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.ParkingPermitViewRepository;
 import se.sundsvall.casedata.integration.db.model.enums.DecisionType;
 import se.sundsvall.casedata.integration.db.model.enums.StakeholderRole;
 import se.sundsvall.casedata.integration.db.model.enums.StakeholderType;
@@ -18,6 +20,7 @@ import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -45,6 +48,8 @@ class ParkingPermitTest extends CustomAbstractAppTest {
 
     @Autowired
     private ErrandRepository errandRepository;
+    @Autowired
+    private ParkingPermitViewRepository parkingPermitViewRepository;
 
     @BeforeEach
     void beforeEach() {
@@ -155,4 +160,103 @@ class ParkingPermitTest extends CustomAbstractAppTest {
 
     }
 
+    @Test
+    void testGetParkingPermitByPermitNumber() throws JsonProcessingException, ClassNotFoundException {
+        var postErrand = createErrandDTO();
+        postErrand.getDecisions().get(0).setDecisionType(DecisionType.FINAL);
+        postErrand.getExtraParameters().put(PERMIT_NUMBER_EXTRA_PARAMETER_KEY, RandomStringUtils.random(10, true, true));
+        postErrand.getExtraParameters().put(PERMIT_STATUS_EXTRA_PARAMETER_KEY, RandomStringUtils.random(10, true, true));
+
+        setupCall()
+                .withServicePath("/errands")
+                .withHttpMethod(HttpMethod.POST)
+                .withRequest(OBJECT_MAPPER.writeValueAsString(postErrand))
+                .withExpectedResponseStatus(HttpStatus.CREATED)
+                .sendRequestAndVerifyResponse();
+
+        var getParkingPermitDTO = setupCall()
+                .withHttpMethod(HttpMethod.GET)
+                .withServicePath("/parking-permits/" + postErrand.getExtraParameters().get(PERMIT_NUMBER_EXTRA_PARAMETER_KEY))
+                .withExpectedResponseStatus(HttpStatus.OK)
+                .sendRequestAndVerifyResponse()
+                .andReturnBody(GetParkingPermitDTO.class);
+
+        assertEquals(postErrand.getExtraParameters().get(PERMIT_NUMBER_EXTRA_PARAMETER_KEY), getParkingPermitDTO.getArtefactPermitNumber());
+        assertEquals(postErrand.getExtraParameters().get(PERMIT_STATUS_EXTRA_PARAMETER_KEY), getParkingPermitDTO.getArtefactPermitStatus());
+        assertEquals(DecisionType.FINAL, getParkingPermitDTO.getErrandDecision().getDecisionType());
+    }
+
+    @Test
+    void testGetParkingPermitByPermitNumberNotFound() {
+        setupCall()
+                .withHttpMethod(HttpMethod.GET)
+                .withServicePath("/parking-permits/unknown")
+                .withExpectedResponseStatus(HttpStatus.NOT_FOUND)
+                .sendRequestAndVerifyResponse();
+    }
+
+    @Test
+    void testGetAllParkingPermitsAfterPermitStatusChanged() throws JsonProcessingException, ClassNotFoundException {
+        var postErrand = createErrandDTO();
+        postErrand.getExtraParameters().put(PERMIT_NUMBER_EXTRA_PARAMETER_KEY, RandomStringUtils.random(10, true, true));
+        postErrand.getExtraParameters().put(PERMIT_STATUS_EXTRA_PARAMETER_KEY, "Active");
+
+        setupCall()
+                .withServicePath("/errands")
+                .withHttpMethod(HttpMethod.POST)
+                .withRequest(OBJECT_MAPPER.writeValueAsString(postErrand))
+                .withExpectedResponseStatus(HttpStatus.CREATED)
+                .sendRequestAndVerifyResponse();
+
+        var patchErrandDTO = new PatchErrandDTO();
+        patchErrandDTO.setExtraParameters(Map.of(PERMIT_STATUS_EXTRA_PARAMETER_KEY, "Expired"));
+        setupCall()
+                .withServicePath("/errands/" + errandRepository.findAll().get(0).getId())
+                .withHttpMethod(HttpMethod.PATCH)
+                .withRequest(OBJECT_MAPPER.writeValueAsString(patchErrandDTO))
+                .withExpectedResponseStatus(HttpStatus.NO_CONTENT)
+                .sendRequestAndVerifyResponse();
+
+        var getParkingPermitDTOList = Arrays.asList(
+                setupCall()
+                        .withHttpMethod(HttpMethod.GET)
+                        .withServicePath("/parking-permits")
+                        .withExpectedResponseStatus(HttpStatus.OK)
+                        .sendRequestAndVerifyResponse()
+                        .andReturnBody(GetParkingPermitDTO[].class));
+        assertEquals(1, getParkingPermitDTOList.size());
+        assertEquals("Expired", getParkingPermitDTOList.get(0).getArtefactPermitStatus());
+    }
+
+    @Test
+    void testRebuildParkingPermits() throws JsonProcessingException, ClassNotFoundException {
+        var postErrand = createErrandDTO();
+        postErrand.getExtraParameters().put(PERMIT_NUMBER_EXTRA_PARAMETER_KEY, RandomStringUtils.random(10, true, true));
+
+        setupCall()
+                .withServicePath("/errands")
+                .withHttpMethod(HttpMethod.POST)
+                .withRequest(OBJECT_MAPPER.writeValueAsString(postErrand))
+                .withExpectedResponseStatus(HttpStatus.CREATED)
+                .sendRequestAndVerifyResponse();
+
+        // Parking permits that are missing, for example after a backfill of errands, are written again by a rebuild
+        parkingPermitViewRepository.deleteAll();
+
+        setupCall()
+                .withServicePath("/parking-permits/rebuild")
+                .withHttpMethod(HttpMethod.POST)
+                .withExpectedResponseStatus(HttpStatus.NO_CONTENT)
+                .sendRequestAndVerifyResponse();
+
+        var getParkingPermitDTOList = Arrays.asList(
+                setupCall()
+                        .withHttpMethod(HttpMethod.GET)
+                        .withServicePath("/parking-permits")
+                        .withExpectedResponseStatus(HttpStatus.OK)
+                        .sendRequestAndVerifyResponse()
+                        .andReturnBody(GetParkingPermitDTO[].class));
+        assertEquals(1, getParkingPermitDTOList.size());
+        assertEquals(postErrand.getExtraParameters().get(PERMIT_NUMBER_EXTRA_PARAMETER_KEY), getParkingPermitDTOList.get(0).getArtefactPermitNumber());
+    }
 }
@@ -0,0 +1,152 @@
+package se.sundsvall.casedata.apptest;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.casedata.CaseDataApplication;
+import se.sundsvall.casedata.api.model.ErrandDTO;
+import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.model.Errand;
+import se.sundsvall.casedata.integration.db.model.enums.DecisionType;
+import se.sundsvall.casedata.service.ErrandService;
+import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static se.sundsvall.casedata.TestUtil.createErrandDTO;
+import static se.sundsvall.casedata.TestUtil.createNoteDTO;
+import static se.sundsvall.casedata.apptest.util.TestConstants.JWT_HEADER_VALUE;
+import static se.sundsvall.casedata.service.util.Constants.PERMIT_NUMBER_EXTRA_PARAMETER_KEY;
+import static se.sundsvall.casedata.service.util.Constants.X_JWT_ASSERTION_HEADER_KEY;
+
+/**
+ * Verifies that the number of SQL statements needed to read errands, and the number of entities kept in the persistence
+ * context while exporting them, does not grow with the number of errands.
+ */
+@WireMockAppTestSuite(files = "classpath:/StatementCountTest", classes = CaseDataApplication.class)
+class StatementCountTest extends CustomAbstractAppTest {
+
+    // One page of errands including all associations, and the nested associations on stakeholders and decisions
+    private static final long MAX_STATEMENTS_GET_ERRANDS = 30;
+    private static final long MAX_STATEMENTS_GET_PARKING_PERMITS = 30;
+    private static final int NUMBER_OF_ERRANDS = 10;
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ErrandRepository errandRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ErrandService errandService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        errandRepository.deleteAll();
+
+        for (int i = 0; i < NUMBER_OF_ERRANDS; i++) {
+            postErrand();
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void afterEach() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void getErrands() {
+        long statementsSmallPage = countStatements("/errands?size=2");
+        long statementsLargePage = countStatements("/errands?size=" + NUMBER_OF_ERRANDS);
+
+        assertEquals(statementsSmallPage, statementsLargePage);
+        assertThat(statementsLargePage).isLessThanOrEqualTo(MAX_STATEMENTS_GET_ERRANDS);
+    }
+
+    @Test
+    void getErrandsWithFields() {
+        long statementsAllFields = countStatements("/errands?size=" + NUMBER_OF_ERRANDS);
+        long statementsStakeholders = countStatements("/errands?fields=stakeholders&size=" + NUMBER_OF_ERRANDS);
+
+        assertThat(statementsStakeholders).isLessThan(statementsAllFields);
+    }
+
+    @Test
+    void getParkingPermits() {
+        long statements = countStatements("/parking-permits");
+
+        // The same number of statements is needed after twice as many errands are created
+        for (int i = 0; i < NUMBER_OF_ERRANDS; i++) {
+            postErrand();
+        }
+
+        assertEquals(statements, countStatements("/parking-permits"));
+        assertThat(statements).isLessThanOrEqualTo(MAX_STATEMENTS_GET_PARKING_PERMITS);
+    }
+
+    @Test
+    void exportAllDetachesErrands() {
+        // Record a child change on every errand, so that each errand is read together with its activity
+        for (Errand errand : errandRepository.findAll()) {
+            webTestClient.patch().uri("/errands/{id}/notes", errand.getId())
+                    .bodyValue(createNoteDTO())
+                    .header(X_JWT_ASSERTION_HEADER_KEY, JWT_HEADER_VALUE)
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+
+        // The export joins this transaction, so the persistence context can be inspected after the scroll
+        int managedEntities = new TransactionTemplate(transactionManager).execute(status -> {
+            int[] exported = new int[1];
+            errandService.exportAll(null, Map.of(), errandDTO -> exported[0]++);
+            assertEquals(NUMBER_OF_ERRANDS, exported[0]);
+
+            return entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities();
+        });
+
+        assertEquals(0, managedEntities);
+    }
+
+    private long countStatements(String uri) {
+        statistics.clear();
+
+        webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void postErrand() {
+        ErrandDTO errandDTO = createErrandDTO();
+        errandDTO.getDecisions().get(0).setDecisionType(DecisionType.FINAL);
+        errandDTO.getExtraParameters().put(PERMIT_NUMBER_EXTRA_PARAMETER_KEY, RandomStringUtils.random(10, true, true));
+
+        webTestClient.post().uri("/errands")
+                .bodyValue(errandDTO)
+                .header(X_JWT_ASSERTION_HEADER_KEY, JWT_HEADER_VALUE)
+                .exchange()
+                .expectStatus().isCreated();
+    }
+}
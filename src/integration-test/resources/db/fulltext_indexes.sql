@@ -0,0 +1,4 @@
+create fulltext index IDX_errand_description_fulltext on errand (description);
+create fulltext index IDX_note_title_text_fulltext on note (title, text);
+create fulltext index IDX_stakeholder_names_fulltext on stakeholder (first_name, last_name, organization_name);
+create fulltext index IDX_stakeholder_addresses_street_fulltext on stakeholder_addresses (street);
@@ -5,6 +5,9 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -12,16 +15,26 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
 import se.sundsvall.casedata.service.AttachmentService;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
 
+import static org.springframework.http.HttpHeaders.ACCEPT_RANGES;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpHeaders.CONTENT_RANGE;
+import static org.springframework.http.HttpHeaders.RANGE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 
 @RestController
@@ -52,4 +65,76 @@ public class AttachmentResource {
         attachmentService.put(attachmentId, attachmentDTO);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(description = "Get the content of an attachment. The content is read from the database in chunks, so it is never held in memory as a whole. A single byte range can be requested with the Range header, e.g. to resume a download.")
+    @GetMapping(path = "/{id}/content", produces = {APPLICATION_OCTET_STREAM_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation")
+    @ApiResponse(responseCode = "206", description = "Partial content - The requested range of the content")
+    @ApiResponse(responseCode = "416", description = "Range not satisfiable - The requested range starts after the end of the content")
+    public ResponseEntity<StreamingResponseBody> getAttachmentContent(@PathVariable Long id, @RequestHeader(name = RANGE, required = false) String range) {
+        var attachment = attachmentService.findById(id);
+        var length = attachmentService.getContentLength(id);
+        var httpRange = parseRange(range);
+
+        long start = 0;
+        long end = length - 1;
+        if (httpRange != null) {
+            try {
+                start = httpRange.getRangeStart(length);
+                end = httpRange.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                // Thrown when the range starts after the end of the content
+                end = -1;
+            }
+            if (end < start) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
+        }
+
+        var response = ResponseEntity.status(httpRange == null ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(end - start + 1)
+                .header(ACCEPT_RANGES, "bytes");
+        if (httpRange != null) {
+            response.header(CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        if (attachment.getName() != null) {
+            response.header(CONTENT_DISPOSITION, ContentDisposition.attachment().filename(attachment.getName()).build().toString());
+        }
+
+        var rangeStart = start;
+        var rangeLength = end - start + 1;
+        StreamingResponseBody body = outputStream -> attachmentService.readContent(id, rangeStart, rangeLength, outputStream);
+        return response.body(body);
+    }
+
+    /**
+     * @return the requested range, or null if the whole content is to be sent. A Range header that can not be parsed or
+     * asks for more than one range is ignored, as allowed by RFC 7233.
+     */
+    private static HttpRange parseRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            var ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Operation(description = "Replace the content of an attachment. The content is written to a temporary file before it is stored in the database.")
+    @PutMapping(path = "/{id}/content", consumes = APPLICATION_OCTET_STREAM_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "204", description = "No content - Successful operation")
+    @ApiResponse(responseCode = "411", description = "Length required - The Content-Length header is missing", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> putAttachmentContent(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() < 0) {
+            throw Problem.valueOf(Status.LENGTH_REQUIRED, "Content-Length is required");
+        }
+        attachmentService.putContent(id, request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,104 @@
+package se.sundsvall.casedata.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import org.zalando.problem.violations.ConstraintViolationProblem;
+import se.sundsvall.casedata.api.model.AttachmentDTO;
+import se.sundsvall.casedata.api.model.AttachmentUploadDTO;
+import se.sundsvall.casedata.service.AttachmentUploadService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.LOCATION;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+import static se.sundsvall.casedata.service.util.Constants.ERRAND_PRECONDITION_FAILED_DESCRIPTION;
+
+@RestController
+@Validated
+@RequestMapping("errands/{errandId}/attachments/uploads")
+@Tag(name = "Attachment uploads", description = "Upload large attachments in parts. Create an upload, send the parts in any order and commit the upload to create the attachment. After a network error, get the upload to see which parts were received and send the rest.")
+@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {Problem.class, ConstraintViolationProblem.class})))
+@ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+public class AttachmentUploadResource {
+
+    private final AttachmentUploadService attachmentUploadService;
+
+    public AttachmentUploadResource(AttachmentUploadService attachmentUploadService) {
+        this.attachmentUploadService = attachmentUploadService;
+    }
+
+    @Operation(description = "Create an upload of an attachment to the errand.")
+    @PostMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "201", description = "Created - Successful operation", headers = @Header(name = LOCATION, description = "Location of the created resource."))
+    public ResponseEntity<AttachmentUploadDTO> postUpload(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long errandId) {
+        var upload = attachmentUploadService.createUpload(errandId);
+        return ResponseEntity.created(uriComponentsBuilder.path("/errands/{errandId}/attachments/uploads/{id}").buildAndExpand(errandId, upload.getId()).toUri())
+                .body(upload);
+    }
+
+    @Operation(description = "Get an upload with the parts received so far.")
+    @GetMapping(path = "/{uploadId}", produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation")
+    public ResponseEntity<AttachmentUploadDTO> getUpload(@PathVariable Long errandId, @PathVariable Long uploadId) {
+        return ResponseEntity.ok(attachmentUploadService.findUpload(errandId, uploadId));
+    }
+
+    @Operation(description = "Send a part of the upload. Parts are numbered from 1 and a part that is sent again replaces the one already received.")
+    @PutMapping(path = "/{uploadId}/parts/{partNumber}", consumes = APPLICATION_OCTET_STREAM_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "204", description = "No content - Successful operation")
+    @ApiResponse(responseCode = "411", description = "Length required - The Content-Length header is missing", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    @ApiResponse(responseCode = "413", description = "Payload too large - The part is larger than the max part size", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> putPart(@PathVariable Long errandId, @PathVariable Long uploadId, @PathVariable @Min(1) @Max(10000) int partNumber, HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() < 0) {
+            throw Problem.valueOf(Status.LENGTH_REQUIRED, "Content-Length is required");
+        }
+        attachmentUploadService.putPart(errandId, uploadId, partNumber, request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(description = "Commit the upload, which creates the attachment on the errand with the parts in order as content. The file of the attachment must not be set.")
+    @PostMapping(path = "/{uploadId}/commit", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "201", description = "Created - Successful operation", headers = @Header(name = LOCATION, description = "Location of the created resource."))
+    @ApiResponse(responseCode = "409", description = "Conflict - A part is missing", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> commitUpload(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long errandId, @PathVariable Long uploadId, @RequestBody @Valid AttachmentDTO attachmentDTO, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        var attachment = attachmentUploadService.commit(errandId, uploadId, attachmentDTO, ifMatch);
+        return ResponseEntity.created(uriComponentsBuilder.path("/attachments/{id}").buildAndExpand(attachment.getId()).toUri())
+                .build();
+    }
+
+    @Operation(description = "Delete an upload that will not be committed, together with its parts.")
+    @DeleteMapping(path = "/{uploadId}", produces = {APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "204", description = "No content - Successful operation")
+    public ResponseEntity<Void> deleteUpload(@PathVariable Long errandId, @PathVariable Long uploadId) {
+        attachmentUploadService.deleteUpload(errandId, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
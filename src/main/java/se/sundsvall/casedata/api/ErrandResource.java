@@ -1,5 +1,6 @@
 package se.sundsvall.casedata.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.turkraft.springfilter.boot.Filter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,13 +23,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.zalando.problem.Problem;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
 import se.sundsvall.casedata.api.model.DecisionDTO;
+import se.sundsvall.casedata.api.model.ErrandBatchResultDTO;
+import se.sundsvall.casedata.api.model.ErrandCursorPageDTO;
 import se.sundsvall.casedata.api.model.ErrandDTO;
 import se.sundsvall.casedata.api.model.ExtraParameterDTO;
 import se.sundsvall.casedata.api.model.NoteDTO;
@@ -40,18 +46,30 @@ import se.sundsvall.casedata.integration.db.model.Decision;
 import se.sundsvall.casedata.integration.db.model.Errand;
 import se.sundsvall.casedata.integration.db.model.Note;
 import se.sundsvall.casedata.integration.db.model.Stakeholder;
+import se.sundsvall.casedata.service.ErrandBatchService;
 import se.sundsvall.casedata.service.ErrandService;
+import se.sundsvall.casedata.service.util.ErrandAssociation;
+import se.sundsvall.casedata.service.util.ErrandETag;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
 import static com.turkraft.springfilter.FilterParameters.LOCALDATE_FORMATTER;
 import static com.turkraft.springfilter.FilterParameters.OFFSETDATETIME_FORMATTER;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpHeaders.LOCATION;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+import static se.sundsvall.casedata.service.util.Constants.ERRAND_PRECONDITION_FAILED_DESCRIPTION;
 
 @RestController
 @Validated
@@ -63,9 +81,13 @@ import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 public class ErrandResource {
 
     private final ErrandService errandService;
+    private final ErrandBatchService errandBatchService;
+    private final ObjectMapper objectMapper;
 
-    public ErrandResource(ErrandService errandService) {
+    public ErrandResource(ErrandService errandService, ErrandBatchService errandBatchService, ObjectMapper objectMapper) {
         this.errandService = errandService;
+        this.errandBatchService = errandBatchService;
+        this.objectMapper = objectMapper;
 
         // Spring-filter config
         OFFSETDATETIME_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
@@ -76,9 +98,17 @@ public class ErrandResource {
 
     @Operation(description = "Get errand by ID.")
     @GetMapping(path = "/{id}", produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
-    @ApiResponse(responseCode = "200", description = "OK - Successful operation")
-    public ResponseEntity<ErrandDTO> getErrandById(@PathVariable Long id) {
-        return ResponseEntity.ok(errandService.findById(id));
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation", headers = @Header(name = ETAG, description = "Version of the errand and the chosen associations. Send as If-None-Match to get 304 if unchanged, or as If-Match when changing the errand."))
+    @ApiResponse(responseCode = "304", description = "Not modified - The errand has not been changed since the version in If-None-Match")
+    public ResponseEntity<ErrandDTO> getErrandById(
+            @PathVariable Long id,
+            @Parameter(description = ErrandAssociation.FIELDS_DESCRIPTION) @RequestParam(required = false) List<String> fields) {
+        var associations = ErrandAssociation.fromFields(fields);
+        ErrandDTO errandDTO = errandService.findById(id, associations);
+        // Spring answers 304 instead when the ETag matches If-None-Match
+        return ResponseEntity.ok()
+                .eTag(ErrandETag.of(errandDTO.getVersion(), associations))
+                .body(errandDTO);
     }
 
     @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
@@ -91,8 +121,53 @@ public class ErrandResource {
                     schema = @Schema(implementation = String.class))
             @Filter Specification<Errand> filter,
             @Parameter(description = "extraParameters on errand. Use like this: extraParameters[artefact.permit.number]=12345&extraParameters[disability.aid]=Rullstol") Optional<ExtraParameterDTO> extraParameterDTO,
+            @Parameter(description = ErrandAssociation.FIELDS_DESCRIPTION) @RequestParam(required = false) List<String> fields,
+            @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(errandService.findAll(filter, extraParameterDTO.orElse(new ExtraParameterDTO()).getExtraParameters(), ErrandAssociation.fromFields(fields), pageable));
+    }
+
+    @GetMapping(params = "cursor", produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @Operation(description = "Get errands with cursor pagination. Start with an empty cursor and pass nextCursor from the response to get the next page. Deep pages cost the same as the first one and no total count is calculated. Can only be sorted on id, created, updated or errandNumber.")
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation")
+    public ResponseEntity<ErrandCursorPageDTO> getErrandsWithCursor(
+            @Parameter(
+                    description = "Syntax description: [spring-filter](https://github.com/turkraft/spring-filter/blob/85730f950a5f8623159cc0eb4d737555f9382bb7/README.md#syntax)",
+                    example = "caseType:'PARKING_PERMIT' and stakeholders.firstName~'*mar*' and applicationReceived>'2022-09-08T12:18:03.747+02:00'",
+                    schema = @Schema(implementation = String.class))
+            @Filter Specification<Errand> filter,
+            @Parameter(description = "extraParameters on errand. Use like this: extraParameters[artefact.permit.number]=12345&extraParameters[disability.aid]=Rullstol") Optional<ExtraParameterDTO> extraParameterDTO,
+            @Parameter(description = "Empty on the first call, then nextCursor from the previous response.") @RequestParam String cursor,
+            @Parameter(description = ErrandAssociation.FIELDS_DESCRIPTION) @RequestParam(required = false) List<String> fields,
+            @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(errandService.findAllWithCursor(filter, extraParameterDTO.orElse(new ExtraParameterDTO()).getExtraParameters(), ErrandAssociation.fromFields(fields), cursor, pageable));
+    }
+
+    @GetMapping(path = "/search", produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @Operation(description = "Search errands by free text in the description of errands, the title and text of notes and the names and street addresses of stakeholders. Every word matches words starting with it. Errands are sorted by relevance, sort is not used.")
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation")
+    public ResponseEntity<Page<ErrandDTO>> searchErrands(
+            @Parameter(description = "Words to search for", example = "Storgatan") @RequestParam @NotBlank String q,
+            @Parameter(description = ErrandAssociation.FIELDS_DESCRIPTION) @RequestParam(required = false) List<String> fields,
             @ParameterObject Pageable pageable) {
-        return ResponseEntity.ok(errandService.findAll(filter, extraParameterDTO.orElse(new ExtraParameterDTO()).getExtraParameters(), pageable));
+        return ResponseEntity.ok(errandService.search(q, ErrandAssociation.fromFields(fields), pageable));
+    }
+
+    @GetMapping(path = "/export", produces = {APPLICATION_NDJSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @Operation(description = "Export errands as newline delimited JSON, one errand per line. The errands are streamed from the database, so there is no paging and no limit on the number of errands.")
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation")
+    public ResponseEntity<StreamingResponseBody> exportErrands(
+            @Parameter(
+                    description = "Syntax description: [spring-filter](https://github.com/turkraft/spring-filter/blob/85730f950a5f8623159cc0eb4d737555f9382bb7/README.md#syntax)",
+                    example = "caseType:'PARKING_PERMIT' and stakeholders.firstName~'*mar*' and applicationReceived>'2022-09-08T12:18:03.747+02:00'",
+                    schema = @Schema(implementation = String.class))
+            @Filter Specification<Errand> filter,
+            @Parameter(description = "extraParameters on errand. Use like this: extraParameters[artefact.permit.number]=12345&extraParameters[disability.aid]=Rullstol") Optional<ExtraParameterDTO> extraParameterDTO) {
+        var extraParameters = extraParameterDTO.orElse(new ExtraParameterDTO()).getExtraParameters();
+        StreamingResponseBody body = outputStream -> errandService.exportAll(filter, extraParameters, errandDTO -> writeLine(outputStream, errandDTO));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @Operation(description = "Get all messages on an errand.")
@@ -120,22 +195,30 @@ public class ErrandResource {
                 .build();
     }
 
+    @Operation(description = "Create many errands in one call, e.g. when migrating errands from another system. Processes are started in the background. Returns one result per errand, in the same order as the request.")
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation, see the status of each errand")
+    public ResponseEntity<List<ErrandBatchResultDTO>> postErrandsBatch(@RequestBody @Size(min = 1, max = 1000) List<ErrandDTO> errandDTOs) {
+        return ResponseEntity.ok(errandBatchService.saveErrandsAndStartProcesses(errandDTOs));
+    }
 
     // PATCH
 
     @Operation(description = "Update errand.")
     @PatchMapping(path = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> patchErrand(@PathVariable Long id, @RequestBody @Valid PatchErrandDTO patchErrandDTO) {
-        errandService.patchErrand(id, patchErrandDTO);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> patchErrand(@PathVariable Long id, @RequestBody @Valid PatchErrandDTO patchErrandDTO, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.patchErrand(id, patchErrandDTO, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(description = "Create and add attachment to errand.")
+    @Operation(description = "Create and add attachment to errand. Large files can be uploaded in parts with /errands/{id}/attachments/uploads instead.")
     @PatchMapping(path = "/{id}/attachments", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "201", description = "Created - Successful operation", headers = @Header(name = LOCATION, description = "Location of the created resource."))
-    public ResponseEntity<Void> patchErrandWithAttachment(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid AttachmentDTO attachmentDTO) {
-        Attachment result = errandService.patchErrand(id, attachmentDTO);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> patchErrandWithAttachment(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid AttachmentDTO attachmentDTO, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        Attachment result = errandService.patchErrand(id, attachmentDTO, ifMatch);
         return ResponseEntity.created(uriComponentsBuilder.path("/attachments/{id}").buildAndExpand(result.getId()).toUri())
                 .build();
     }
@@ -143,16 +226,18 @@ public class ErrandResource {
     @Operation(description = "Add status to errand.")
     @PatchMapping(path = "/{id}/statuses", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> patchErrandWithStatus(@PathVariable Long id, @RequestBody @Valid StatusDTO statusDTO) {
-        errandService.patchErrand(id, statusDTO);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> patchErrandWithStatus(@PathVariable Long id, @RequestBody @Valid StatusDTO statusDTO, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.patchErrand(id, statusDTO, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(description = "Create and add note to errand.")
     @PatchMapping(path = "/{id}/notes", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "201", description = "Created - Successful operation", headers = @Header(name = LOCATION, description = "Location of the created resource."))
-    public ResponseEntity<Void> patchErrandWithNote(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid NoteDTO noteDTO) {
-        Note result = errandService.patchErrand(id, noteDTO);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> patchErrandWithNote(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid NoteDTO noteDTO, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        Note result = errandService.patchErrand(id, noteDTO, ifMatch);
         return ResponseEntity.created(uriComponentsBuilder.path("/notes/{id}").buildAndExpand(result.getId()).toUri())
                 .build();
     }
@@ -160,8 +245,9 @@ public class ErrandResource {
     @Operation(description = "Create and add decision to errand.")
     @PatchMapping(path = "/{id}/decisions", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "201", description = "Created - Successful operation", headers = @Header(name = LOCATION, description = "Location of the created resource."))
-    public ResponseEntity<Void> patchErrandWithDecision(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid DecisionDTO decisionDTO) {
-        Decision result = errandService.patchErrand(id, decisionDTO);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> patchErrandWithDecision(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid DecisionDTO decisionDTO, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        Decision result = errandService.patchErrand(id, decisionDTO, ifMatch);
         return ResponseEntity.created(uriComponentsBuilder.path("/decisions/{id}").buildAndExpand(result.getId()).toUri())
                 .build();
     }
@@ -169,16 +255,18 @@ public class ErrandResource {
     @Operation(description = "Add messageIds to errand.")
     @PatchMapping(path = "/{id}/message-ids", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> patchErrandWithMessage(@PathVariable Long id, @RequestBody List<String> messageIds) {
-        errandService.patchErrandWithMessage(id, messageIds);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> patchErrandWithMessage(@PathVariable Long id, @RequestBody List<String> messageIds, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.patchErrandWithMessage(id, messageIds, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(description = "Create and add stakeholder to errand.")
     @PatchMapping(path = "/{id}/stakeholders", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "201", description = "Created - Successful operation", headers = @Header(name = LOCATION, description = "Location of the created resource."))
-    public ResponseEntity<Void> patchErrandWithStakeholder(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid StakeholderDTO stakeholderDTO) {
-        Stakeholder result = errandService.patchErrand(id, stakeholderDTO);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> patchErrandWithStakeholder(UriComponentsBuilder uriComponentsBuilder, @PathVariable Long id, @RequestBody @Valid StakeholderDTO stakeholderDTO, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        Stakeholder result = errandService.patchErrand(id, stakeholderDTO, ifMatch);
         return ResponseEntity.created(uriComponentsBuilder.path("/stakeholders/{id}").buildAndExpand(result.getId()).toUri())
                 .build();
     }
@@ -188,24 +276,27 @@ public class ErrandResource {
     @Operation(description = "Add/replace status on errand.")
     @PutMapping(path = "/{id}/statuses", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> putStatusOnErrand(@PathVariable Long id, @RequestBody @Valid List<StatusDTO> statusDTOList) {
-        errandService.putStatusesOnErrand(id, statusDTOList);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> putStatusOnErrand(@PathVariable Long id, @RequestBody @Valid List<StatusDTO> statusDTOList, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.putStatusesOnErrand(id, statusDTOList, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(description = "Replace attachments on errand.")
     @PutMapping(path = "/{id}/attachments", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> putAttachmentsOnErrand(@PathVariable Long id, @RequestBody @Valid List<AttachmentDTO> attachmentDTOList) {
-        errandService.putAttachmentsOnErrand(id, attachmentDTOList);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> putAttachmentsOnErrand(@PathVariable Long id, @RequestBody @Valid List<AttachmentDTO> attachmentDTOList, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.putAttachmentsOnErrand(id, attachmentDTOList, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(description = "Replace stakeholders on errand.")
     @PutMapping(path = "/{id}/stakeholders", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> putStakeholdersOnErrand(@PathVariable Long id, @RequestBody @Valid List<StakeholderDTO> stakeholderDTOList) {
-        errandService.putStakeholdersOnErrand(id, stakeholderDTOList);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> putStakeholdersOnErrand(@PathVariable Long id, @RequestBody @Valid List<StakeholderDTO> stakeholderDTOList, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.putStakeholdersOnErrand(id, stakeholderDTOList, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
@@ -213,33 +304,45 @@ public class ErrandResource {
     @Operation(description = "Delete attachment on errand.")
     @DeleteMapping(path = "/{id}/attachments/{attachmentId}", produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> deleteAttachment(@PathVariable Long id, @PathVariable Long attachmentId) {
-        errandService.deleteAttachmentOnErrand(id, attachmentId);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> deleteAttachment(@PathVariable Long id, @PathVariable Long attachmentId, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.deleteAttachmentOnErrand(id, attachmentId, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(description = "Delete stakeholder on errand.")
     @DeleteMapping(path = "/{id}/stakeholders/{stakeholderId}", produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> deleteStakeholder(@PathVariable Long id, @PathVariable Long stakeholderId) {
-        errandService.deleteStakeholderOnErrand(id, stakeholderId);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> deleteStakeholder(@PathVariable Long id, @PathVariable Long stakeholderId, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.deleteStakeholderOnErrand(id, stakeholderId, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(description = "Delete decision on errand.")
     @DeleteMapping(path = "/{id}/decisions/{decisionId}", produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> deleteDecision(@PathVariable Long id, @PathVariable Long decisionId) {
-        errandService.deleteDecisionOnErrand(id, decisionId);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> deleteDecision(@PathVariable Long id, @PathVariable Long decisionId, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.deleteDecisionOnErrand(id, decisionId, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(description = "Delete note on errand.")
     @DeleteMapping(path = "/{id}/notes/{noteId}", produces = {APPLICATION_PROBLEM_JSON_VALUE})
     @ApiResponse(responseCode = "204", description = "No content - Successful operation")
-    public ResponseEntity<Void> deleteNote(@PathVariable Long id, @PathVariable Long noteId) {
-        errandService.deleteNoteOnErrand(id, noteId);
+    @ApiResponse(responseCode = "412", description = ERRAND_PRECONDITION_FAILED_DESCRIPTION, content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+    public ResponseEntity<Void> deleteNote(@PathVariable Long id, @PathVariable Long noteId, @RequestHeader(name = IF_MATCH, required = false) String ifMatch) {
+        errandService.deleteNoteOnErrand(id, noteId, ifMatch);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private void writeLine(OutputStream outputStream, ErrandDTO errandDTO) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(errandDTO));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -9,6 +9,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -44,4 +46,19 @@ public class ParkingPermitResource {
 
         return ResponseEntity.ok(parkingPermitService.findAll(personId));
     }
+
+    @Operation(description = "Get parking permit by permit number.")
+    @GetMapping(path = "/{permitNumber}", produces = {APPLICATION_JSON_VALUE, APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "200", description = "OK - Successful operation")
+    public ResponseEntity<GetParkingPermitDTO> getParkingPermitByPermitNumber(@PathVariable String permitNumber) {
+        return ResponseEntity.ok(parkingPermitService.findByPermitNumber(permitNumber));
+    }
+
+    @Operation(description = "Rebuild the parking permits from all errands. Parking permits are kept up to date when errands change, this is only needed to fill them after they have been changed outside the service.")
+    @PostMapping(path = "/rebuild", produces = {APPLICATION_PROBLEM_JSON_VALUE})
+    @ApiResponse(responseCode = "204", description = "No content - Successful operation")
+    public ResponseEntity<Void> rebuildParkingPermits() {
+        parkingPermitService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,5 +1,6 @@
 package se.sundsvall.casedata.api.model;
 
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -35,6 +36,7 @@ public class AttachmentDTO  extends BaseDTO {
     @Size(max = 255)
     private String mimeType;
 
+    @Schema(accessMode = Schema.AccessMode.WRITE_ONLY, description = "Base64 encoded content. Only read when the attachment is created or replaced, use /attachments/{id}/content to read or replace the binary content.")
     private String file;
 
     private Map<String, String> extraParameters = new HashMap<>();
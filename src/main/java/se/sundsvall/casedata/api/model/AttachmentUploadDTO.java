@@ -0,0 +1,30 @@
+package se.sundsvall.casedata.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttachmentUploadDTO {
+
+    @Schema(description = "Id of the upload.", example = "1")
+    private Long id;
+
+    @Schema(description = "Id of the errand the attachment is added to when the upload is committed.", example = "1")
+    private Long errandId;
+
+    @Schema(description = "When the upload was created. Uploads that are not committed in time are deleted.", example = "2022-12-01T10:15:30+01:00")
+    private OffsetDateTime created;
+
+    @Schema(description = "The parts received so far, in order of part number. Missing parts are uploaded again after a network error.")
+    private List<AttachmentUploadPartDTO> parts;
+
+}
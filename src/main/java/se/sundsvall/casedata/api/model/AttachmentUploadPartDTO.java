@@ -0,0 +1,21 @@
+package se.sundsvall.casedata.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttachmentUploadPartDTO {
+
+    @Schema(description = "Number of the part, starting at 1.", example = "1")
+    private int partNumber;
+
+    @Schema(description = "Number of bytes in the part.", example = "10485760")
+    private long size;
+
+}
@@ -0,0 +1,30 @@
+package se.sundsvall.casedata.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrandBatchResultDTO {
+
+    @Schema(description = "Position of the errand in the request.", example = "0")
+    private int index;
+
+    @Schema(description = "Id of the created errand. Missing if the errand was not created.", example = "1")
+    private Long id;
+
+    @Schema(description = "Errand number of the created errand. Missing if the errand was not created.", example = "PRH-2022-000001")
+    private String errandNumber;
+
+    @Schema(description = "HTTP status for the errand, 201 if it was created.", example = "201")
+    private int status;
+
+    @Schema(description = "Why the errand was not created.", example = "caseType: must not be null")
+    private String detail;
+
+}
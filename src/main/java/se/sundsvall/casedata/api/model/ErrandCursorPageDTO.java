@@ -0,0 +1,22 @@
+package se.sundsvall.casedata.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrandCursorPageDTO {
+
+    private List<ErrandDTO> content;
+
+    @Schema(description = "Pass as cursor to get the next page. Missing when there are no more errands.", example = "aWR8QVNDfDEwMHwxMDA")
+    private String nextCursor;
+
+}
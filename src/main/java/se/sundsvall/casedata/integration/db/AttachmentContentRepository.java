@@ -0,0 +1,19 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import se.sundsvall.casedata.integration.db.model.AttachmentContent;
+
+public interface AttachmentContentRepository extends JpaRepository<AttachmentContent, Long> {
+
+    /**
+     * Deletes content that no attachment refers to anymore.
+     *
+     * @return the number of deleted contents
+     */
+    @Modifying
+    @Query("delete from attachment_content c where c.referenceCount <= 0 " +
+            "and not exists (select a.id from attachment a where a.content = c)")
+    int deleteUnreferenced();
+}
@@ -0,0 +1,144 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import se.sundsvall.casedata.integration.db.model.Attachment;
+import se.sundsvall.casedata.integration.db.model.AttachmentContent;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.function.Supplier;
+
+/**
+ * Stores attachment content once per SHA-256 digest. Every attachment referring to a content counts as one reference.
+ * Content without references is deleted by {@link se.sundsvall.casedata.service.AttachmentContentCleanup}, after the
+ * attachments referring to it are gone.
+ * <p>
+ * Content and reference counts are written with JDBC on the connection of the current transaction, so the methods can
+ * be called from entity listeners during a flush. A reference is added with one statement that locks the row, so
+ * concurrent transactions storing the same content neither insert it twice nor refer to content deleted by the cleanup.
+ */
+@Component
+public class AttachmentContentStore {
+
+    private static final String FIND_ID_BY_DIGEST = "select id from attachment_content where digest = ?";
+    private static final String ADD_REFERENCES = "update attachment_content set reference_count = reference_count + ? where id = ?";
+    private static final String ADD_REFERENCE_BY_DIGEST = "update attachment_content set reference_count = reference_count + 1 where digest = ?";
+    // Ids are taken from the sequence used by Hibernate, which hands out blocks starting at the returned value
+    private static final String NEXT_ID = "select next value for attachment_content_seq";
+    private static final String INSERT_OR_ADD_REFERENCE = """
+            insert into attachment_content (id, created, updated, version, digest, file, reference_count)
+            values (?, current_timestamp(6), current_timestamp(6), 0, ?, ?, 1)
+            on duplicate key update reference_count = reference_count + 1""";
+    private static final String READ_CHUNK = "select substring(file, ?, ?) from attachment_content where id = ?";
+    // The max number of bytes read with one statement
+    static final int READ_CHUNK_SIZE = 1024 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public AttachmentContentStore(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns the content with the digest with one more reference. If no content with the digest is stored, the content
+     * is inserted with one reference.
+     *
+     * @param file only called when no content with the digest is stored
+     */
+    public AttachmentContent store(String digest, Supplier<Blob> file) {
+        // The update locks the row until the transaction ends, so the cleanup can not delete the content in between
+        if (jdbcTemplate.update(ADD_REFERENCE_BY_DIGEST, digest) == 0) {
+            insert(digest, file.get());
+        }
+        return entityManager.getReference(AttachmentContent.class, jdbcTemplate.queryForObject(FIND_ID_BY_DIGEST, Long.class, digest));
+    }
+
+    /**
+     * Sets the content with the digest on the attachment, see {@link #store(String, Supplier)}. The digest and size are
+     * set on the attachment as well, so that the history of the attachment shows when the content changed without the
+     * content itself being loaded.
+     *
+     * @param size the number of bytes in the content
+     */
+    public void attach(Attachment attachment, String digest, long size, Supplier<Blob> file) {
+        attachment.setContent(store(digest, file));
+        attachment.setContentDigest(digest);
+        attachment.setContentSize(size);
+    }
+
+    /**
+     * Replaces content on the attachment that is not stored yet, e.g. content mapped from base64, with the stored
+     * content with the same digest.
+     */
+    public void resolve(Attachment attachment) {
+        var content = attachment.getContent();
+        if (content == null || content.getId() != null) {
+            return;
+        }
+        attach(attachment, content.getDigest(), sizeOf(content.getFile()), content::getFile);
+    }
+
+    /**
+     * Removes one reference from the content.
+     */
+    public void release(AttachmentContent content) {
+        if (content != null && content.getId() != null) {
+            jdbcTemplate.update(ADD_REFERENCES, -1, content.getId());
+        }
+    }
+
+    /**
+     * Copies a range of the content to the output stream. The MariaDB driver reads the whole file into memory when it is
+     * read through a Blob, so the range is read with substring in chunks of at most {@value #READ_CHUNK_SIZE} bytes.
+     *
+     * @param start  the index of the first byte to copy, starting at 0
+     * @param length the max number of bytes to copy
+     */
+    public void read(Long contentId, long start, long length, OutputStream outputStream) throws IOException {
+        var position = start;
+        var remaining = length;
+        while (remaining > 0) {
+            var chunk = jdbcTemplate.queryForObject(READ_CHUNK, byte[].class, position + 1, Math.min(READ_CHUNK_SIZE, remaining), contentId);
+            if (chunk == null || chunk.length == 0) {
+                return;
+            }
+            outputStream.write(chunk);
+            position += chunk.length;
+            remaining -= chunk.length;
+        }
+    }
+
+    private static long sizeOf(Blob file) {
+        try {
+            return file == null ? 0 : file.length();
+        } catch (SQLException e) {
+            throw Problem.valueOf(Status.INTERNAL_SERVER_ERROR, "Could not read size of attachment content");
+        }
+    }
+
+    /**
+     * Inserts the content, or adds a reference to it if another transaction has inserted the same content since it was
+     * looked for. The insert waits for that transaction to end.
+     */
+    private void insert(String digest, Blob file) {
+        var id = jdbcTemplate.queryForObject(NEXT_ID, Long.class);
+        jdbcTemplate.update(INSERT_OR_ADD_REFERENCE, preparedStatement -> {
+            preparedStatement.setLong(1, id);
+            preparedStatement.setString(2, digest);
+            if (file == null) {
+                preparedStatement.setNull(3, Types.BLOB);
+            } else {
+                preparedStatement.setBinaryStream(3, file.getBinaryStream(), file.length());
+            }
+        });
+    }
+}
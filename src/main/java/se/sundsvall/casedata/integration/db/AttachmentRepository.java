@@ -2,9 +2,8 @@ package se.sundsvall.casedata.integration.db;
 
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import se.sundsvall.casedata.integration.db.model.Attachment;
 
 @JaversSpringDataAuditable
-public interface AttachmentRepository extends JpaRepository<Attachment, Long>, JpaSpecificationExecutor<Attachment> {
+public interface AttachmentRepository extends JpaRepository<Attachment, Long>, ExtraParameterRepository<Attachment> {
 }
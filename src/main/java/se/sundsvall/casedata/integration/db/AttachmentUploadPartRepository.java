@@ -0,0 +1,44 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.casedata.integration.db.model.AttachmentUploadPart;
+
+import java.sql.Blob;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface AttachmentUploadPartRepository extends JpaRepository<AttachmentUploadPart, Long> {
+
+    /**
+     * The part number and size of a part, without its file.
+     */
+    interface PartSummary {
+        int getPartNumber();
+
+        long getSize();
+    }
+
+    List<PartSummary> findByUploadIdOrderByPartNumber(Long uploadId);
+
+    /**
+     * Returns the file of a part without loading the part into the persistence context, so only one part at a time is
+     * held in memory when the parts are read in order.
+     */
+    @Query("select p.file from attachment_upload_part p where p.upload.id = :uploadId and p.partNumber = :partNumber")
+    Blob findFile(@Param("uploadId") Long uploadId, @Param("partNumber") int partNumber);
+
+    @Modifying
+    @Query("delete from attachment_upload_part p where p.upload.id = :uploadId and p.partNumber = :partNumber")
+    int deleteByUploadIdAndPartNumber(@Param("uploadId") Long uploadId, @Param("partNumber") int partNumber);
+
+    @Modifying
+    @Query("delete from attachment_upload_part p where p.upload.id = :uploadId")
+    int deleteByUploadId(@Param("uploadId") Long uploadId);
+
+    @Modifying
+    @Query("delete from attachment_upload_part p where p.upload.id in (select u.id from attachment_upload u where u.created < :before)")
+    int deleteByUploadCreatedBefore(@Param("before") OffsetDateTime before);
+}
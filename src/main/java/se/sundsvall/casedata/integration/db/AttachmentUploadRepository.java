@@ -0,0 +1,33 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.casedata.integration.db.model.AttachmentUpload;
+
+import javax.persistence.LockModeType;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+public interface AttachmentUploadRepository extends JpaRepository<AttachmentUpload, Long> {
+
+    Optional<AttachmentUpload> findByIdAndErrandId(Long id, Long errandId);
+
+    /**
+     * Finds the upload and locks it until the transaction ends, so that concurrent puts of parts, commits and deletes of
+     * the same upload wait for each other, and only the first commit or delete finds it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AttachmentUpload> findForUpdateByIdAndErrandId(Long id, Long errandId);
+
+    /**
+     * Deletes uploads created before the given time. Their parts must be deleted first.
+     *
+     * @return the number of deleted uploads
+     */
+    @Modifying
+    @Query("delete from attachment_upload u where u.created < :before")
+    int deleteByCreatedBefore(@Param("before") OffsetDateTime before);
+}
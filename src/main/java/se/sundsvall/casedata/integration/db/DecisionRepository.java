@@ -2,9 +2,8 @@ package se.sundsvall.casedata.integration.db;
 
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import se.sundsvall.casedata.integration.db.model.Decision;
 
 @JaversSpringDataAuditable
-public interface DecisionRepository extends JpaRepository<Decision, Long>, JpaSpecificationExecutor<Decision> {
+public interface DecisionRepository extends JpaRepository<Decision, Long>, ExtraParameterRepository<Decision> {
 }
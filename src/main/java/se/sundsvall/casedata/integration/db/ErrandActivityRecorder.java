@@ -0,0 +1,95 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.casedata.api.filter.IncomingRequestFilter;
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Records changes to the children of an errand in errand_activity instead of on the errand row, so that children of the
+ * same errand can be changed in parallel without optimistic locking failures on the errand.
+ * <p>
+ * The upsert is run with JDBC on the connection of the current transaction, so it is committed or rolled back together
+ * with the child change, and it does not trigger a new flush of the persistence context.
+ */
+@Component
+public class ErrandActivityRecorder {
+
+    private static final String UPSERT_ACTIVITY = """
+            insert into errand_activity (errand_id, child_changes, last_child_change, last_child_change_by, last_child_change_by_client)
+            values (?, 1, ?, ?, ?)
+            on duplicate key update child_changes = child_changes + 1,
+                last_child_change = values(last_child_change),
+                last_child_change_by = values(last_child_change_by),
+                last_child_change_by_client = values(last_child_change_by_client)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IncomingRequestFilter incomingRequestFilter;
+
+    public ErrandActivityRecorder(JdbcTemplate jdbcTemplate, IncomingRequestFilter incomingRequestFilter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.incomingRequestFilter = incomingRequestFilter;
+    }
+
+    /**
+     * Marks the errand as created in the current transaction. Children saved together with a new errand are part of the
+     * creation and are not recorded as changes.
+     */
+    public void errandCreated(Errand errand) {
+        var state = currentState();
+        if (state != null) {
+            state.createdErrands.add(errand);
+        }
+    }
+
+    /**
+     * Records a change to a child of the errand. Only the first change per errand in a transaction is written.
+     */
+    public void childChanged(Errand errand) {
+        if (errand == null || errand.getId() == null) {
+            return;
+        }
+
+        var state = currentState();
+        if (state != null && (state.createdErrands.contains(errand) || !state.recordedErrandIds.add(errand.getId()))) {
+            return;
+        }
+
+        jdbcTemplate.update(UPSERT_ACTIVITY, errand.getId(), Timestamp.from(OffsetDateTime.now().toInstant()),
+                incomingRequestFilter.getAdUser(), incomingRequestFilter.getSubscriber());
+    }
+
+    private TransactionState currentState() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        var state = (TransactionState) TransactionSynchronizationManager.getResource(this);
+        if (state == null) {
+            state = new TransactionState();
+            TransactionSynchronizationManager.bindResource(this, state);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ErrandActivityRecorder.this);
+                }
+            });
+        }
+        return state;
+    }
+
+    private static final class TransactionState {
+        // The id of a new errand is not known until it is persisted, so new errands are tracked by identity
+        private final Set<Errand> createdErrands = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<Long> recordedErrandIds = new HashSet<>();
+    }
+}
@@ -0,0 +1,45 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import se.sundsvall.casedata.integration.db.model.enums.CaseType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Hands out errand numbers on the format ABBREVIATION-YEAR-NUMBER, e.g. PRH-2022-000001. The number sequence is per
+ * abbreviation and year.
+ */
+@Component
+public class ErrandNumberAllocator {
+
+    private static final String DELIMITER = "-";
+
+    private final ErrandNumberSequenceRepository errandNumberSequenceRepository;
+
+    public ErrandNumberAllocator(@Lazy ErrandNumberSequenceRepository errandNumberSequenceRepository) {
+        this.errandNumberSequenceRepository = errandNumberSequenceRepository;
+    }
+
+    public String next(CaseType caseType) {
+        return allocate(caseType, 1).get(0);
+    }
+
+    /**
+     * Reserves count consecutive errand numbers with one database round trip.
+     */
+    public List<String> allocate(CaseType caseType, int count) {
+        int year = LocalDate.now().getYear();
+        long lastNumber = errandNumberSequenceRepository.allocate(caseType.getAbbreviation(), year, count);
+
+        return LongStream.rangeClosed(lastNumber - count + 1, lastNumber)
+                .mapToObj(number -> format(caseType.getAbbreviation(), year, number))
+                .toList();
+    }
+
+    private static String format(String abbreviation, int year, long number) {
+        return abbreviation + DELIMITER + year + DELIMITER + String.format("%06d", number);
+    }
+}
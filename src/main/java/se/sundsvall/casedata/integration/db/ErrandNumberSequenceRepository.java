@@ -0,0 +1,35 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.casedata.integration.db.model.ErrandNumberSequence;
+
+public interface ErrandNumberSequenceRepository extends JpaRepository<ErrandNumberSequence, ErrandNumberSequence.ErrandNumberSequenceId> {
+
+    /**
+     * Creates the sequence with last number count, or adds count to the last number if it already exists. The row stays
+     * locked until the surrounding transaction ends, so two concurrent callers can never get the same numbers.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO errand_number_sequence (abbreviation, year, last_number) VALUES (:abbreviation, :year, :count) " +
+            "ON DUPLICATE KEY UPDATE last_number = last_number + :count", nativeQuery = true)
+    void increment(@Param("abbreviation") String abbreviation, @Param("year") int year, @Param("count") int count);
+
+    @Query(value = "SELECT last_number FROM errand_number_sequence WHERE abbreviation = :abbreviation AND year = :year", nativeQuery = true)
+    long findLastNumber(@Param("abbreviation") String abbreviation, @Param("year") int year);
+
+    /**
+     * Reserves a block of count numbers for the abbreviation and year, starting at 1 every new year.
+     *
+     * @return the last number in the block, the block is (last number - count, last number]
+     */
+    @Transactional
+    default long allocate(String abbreviation, int year, int count) {
+        increment(abbreviation, year, count);
+        return findLastNumber(abbreviation, year);
+    }
+}
@@ -1,16 +1,33 @@
 package se.sundsvall.casedata.integration.db;
 
 import org.javers.spring.annotation.JaversSpringDataAuditable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.casedata.integration.db.model.Errand;
 
-import java.util.List;
+import javax.persistence.LockModeType;
+import java.util.Optional;
 
 @JaversSpringDataAuditable
-public interface ErrandRepository extends JpaRepository<Errand, Long>, JpaSpecificationExecutor<Errand> {
-    Page<Errand> findAllByIdIn(List<Long> id, Pageable pageable);
-    List<Errand> findAllByErrandNumberStartingWith(String caseTypeAbbreviation);
+public interface ErrandRepository extends JpaRepository<Errand, Long>, ExtraParameterRepository<Errand>, ErrandSearchRepository {
+
+    /**
+     * Finds the errand and locks it until the transaction ends, so that concurrent changes of the same errand wait for
+     * each other and each one reads the errand as changed by the one before.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Errand> findForUpdateById(Long id);
+
+    /**
+     * Sets the process id without loading the errand, so that a process started in the background does not conflict
+     * with a client updating the errand at the same time.
+     */
+    @Transactional
+    @Modifying
+    @Query("update errand e set e.processId = :processId where e.id = :id")
+    void updateProcessId(@Param("id") Long id, @Param("processId") String processId);
 }
@@ -0,0 +1,51 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ErrandSearchRepository {
+
+    /**
+     * Paged search in three steps: an id query for the requested page, grouped by id so that each errand is one row, a
+     * separate count query and finally a fetch of the errands on the page. A sort on an attribute of a collection uses
+     * the lowest value per errand when ascending and the highest when descending. Memory usage is bound by the page
+     * size, not the number of matches.
+     *
+     * @return Page of errands in the order given by pageable
+     */
+    Page<Errand> findAllPaged(Specification<Errand> specification, Pageable pageable);
+
+    /**
+     * Keyset (cursor) paged search. Errands are ordered by the given order and id, starting after the position
+     * given by lastValue and lastId. No offset or count query is used, so deep pages cost the same as the first one.
+     *
+     * @param order     sort order on a non-nullable errand attribute
+     * @param lastValue value of the sort attribute on the last errand of the previous page, or null for the first page
+     * @param lastId    id of the last errand of the previous page, or null for the first page
+     * @param limit     max number of errands to return
+     * @return List of errands in keyset order
+     */
+    List<Errand> findAllAfter(Specification<Errand> specification, Sort.Order order, Comparable<?> lastValue, Long lastId, int limit);
+
+    /**
+     * Streams all matching errands, ordered by id, from a forward-only database cursor. Each errand is detached after
+     * the consumer has handled it, so memory usage is constant regardless of the number of errands.
+     * Must be called within a transaction.
+     */
+    void streamAll(Specification<Errand> specification, Consumer<Errand> consumer);
+
+    /**
+     * Full-text search in the description of errands, the title and text of notes and the names and street addresses of
+     * stakeholders, using the FULLTEXT indexes on those columns. Every word matches words starting with it. Errands are
+     * ordered by the summed relevance of their matches, the sort of pageable is not used.
+     *
+     * @return Page of errands in order of relevance
+     */
+    Page<Errand> search(String text, Pageable pageable);
+}
@@ -0,0 +1,238 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+@Transactional(readOnly = true)
+class ErrandSearchRepositoryImpl implements ErrandSearchRepository {
+
+    private static final String ID = "id";
+    private static final String ACTIVITY = "activity";
+    private static final int STREAM_FETCH_SIZE = 100;
+    // Boolean mode operators in the search text are not passed on, words are separated by everything but letters and digits
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String FULLTEXT_MATCHES = """
+            select e.id as errand_id, match (e.description) against (:text in boolean mode) as score
+            from errand e
+            where match (e.description) against (:text in boolean mode)
+            union all
+            select n.errand_id, match (n.title, n.text) against (:text in boolean mode)
+            from note n
+            where match (n.title, n.text) against (:text in boolean mode)
+            union all
+            select s.errand_id, match (s.first_name, s.last_name, s.organization_name) against (:text in boolean mode)
+            from stakeholder s
+            where match (s.first_name, s.last_name, s.organization_name) against (:text in boolean mode)
+            union all
+            select s.errand_id, match (a.street) against (:text in boolean mode)
+            from stakeholder_addresses a
+            join stakeholder s on s.id = a.stakeholder_id
+            where match (a.street) against (:text in boolean mode)""";
+    private static final String SEARCH_IDS = "select m.errand_id from (" + FULLTEXT_MATCHES + ") m where m.errand_id is not null " +
+            "group by m.errand_id order by sum(m.score) desc, m.errand_id";
+    private static final String SEARCH_COUNT = "select count(distinct m.errand_id) from (" + FULLTEXT_MATCHES + ") m where m.errand_id is not null";
+
+    private final EntityManager entityManager;
+
+    ErrandSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Errand> findAllPaged(Specification<Errand> specification, Pageable pageable) {
+        List<Long> ids = findIds(specification, pageable);
+        return PageableExecutionUtils.getPage(findAllByIdsInOrder(ids), pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<Errand> findAllAfter(Specification<Errand> specification, Sort.Order order, Comparable<?> lastValue, Long lastId, int limit) {
+        // The id is always the last sort key, making the order total
+        Sort sort = ID.equals(order.getProperty()) ? Sort.by(order) : Sort.by(order, new Sort.Order(order.getDirection(), ID));
+        Specification<Errand> keysetSpecification = Specification.where(specification).and(after(order, lastValue, lastId));
+
+        return findAllByIdsInOrder(findIds(keysetSpecification, PageRequest.of(0, limit, sort)));
+    }
+
+    @Override
+    public Page<Errand> search(String text, Pageable pageable) {
+        String booleanQuery = toBooleanQuery(text);
+        if (booleanQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        var query = entityManager.createNativeQuery(SEARCH_IDS)
+                .setParameter("text", booleanQuery);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Long> ids = ((List<?>) query.getResultList()).stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+
+        return PageableExecutionUtils.getPage(findAllByIdsInOrder(ids), pageable, () -> ((Number) entityManager.createNativeQuery(SEARCH_COUNT)
+                .setParameter("text", booleanQuery)
+                .getSingleResult()).longValue());
+    }
+
+    @Override
+    public void streamAll(Specification<Errand> specification, Consumer<Errand> consumer) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Errand> query = criteriaBuilder.createQuery(Errand.class);
+        Root<Errand> root = query.from(Errand.class);
+
+        root.fetch(ACTIVITY, JoinType.LEFT);
+        query.select(root).distinct(true).orderBy(criteriaBuilder.asc(root.get(ID)));
+        applyPredicate(specification, root, query, criteriaBuilder);
+
+        Query<?> hibernateQuery = entityManager.createQuery(query).unwrap(Query.class);
+        hibernateQuery.setFetchSize(STREAM_FETCH_SIZE);
+        hibernateQuery.setReadOnly(true);
+
+        try (ScrollableResults results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Errand errand = (Errand) results.get(0);
+                consumer.accept(errand);
+                entityManager.detach(errand);
+            }
+        }
+    }
+
+    private List<Long> findIds(Specification<Errand> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Errand> root = query.from(Errand.class);
+
+        // One row per errand, also when sorting on an attribute of a collection, so that pages are full and agree with the count
+        query.select(root.get(ID)).groupBy(root.get(ID)).orderBy(toGroupOrders(pageable.getSort(), root, criteriaBuilder));
+        applyPredicate(specification, root, query, criteriaBuilder);
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Sorts the errands on the lowest value of each sort expression when ascending and on the highest when descending.
+     * For an attribute of the errand itself that is the value of the attribute.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static List<Order> toGroupOrders(Sort sort, Root<Errand> root, CriteriaBuilder criteriaBuilder) {
+        return toOrders(sort, root, criteriaBuilder).stream()
+                .map(order -> {
+                    Expression<Comparable> expression = (Expression<Comparable>) order.getExpression();
+                    return order.isAscending() ? criteriaBuilder.asc(criteriaBuilder.least(expression)) : criteriaBuilder.desc(criteriaBuilder.greatest(expression));
+                })
+                .toList();
+    }
+
+    private long count(Specification<Errand> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Errand> root = query.from(Errand.class);
+
+        applyPredicate(specification, root, query, criteriaBuilder);
+        query.select(criteriaBuilder.countDistinct(root));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<Errand> findAllByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Errand> query = criteriaBuilder.createQuery(Errand.class);
+        Root<Errand> root = query.from(Errand.class);
+        root.fetch(ACTIVITY, JoinType.LEFT);
+        query.select(root).where(root.get(ID).in(ids));
+
+        Map<Long, Errand> errandsById = entityManager.createQuery(query).getResultList().stream()
+                .collect(Collectors.toMap(Errand::getId, Function.identity()));
+
+        return ids.stream()
+                .map(errandsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Every word in the text as an optional prefix term, so that errands matching more words are ranked higher.
+     */
+    static String toBooleanQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        return Arrays.stream(NON_WORD_CHARACTERS.split(text))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + "*")
+                .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * (sortValue, id) > (lastValue, lastId) for ascending order and (sortValue, id) < (lastValue, lastId) for descending order.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Specification<Errand> after(Sort.Order order, Comparable<?> lastValue, Long lastId) {
+        return (root, query, criteriaBuilder) -> {
+            if (lastId == null) {
+                return null;
+            }
+
+            Expression<Long> id = root.get(ID);
+            Predicate idAfter = order.isAscending() ? criteriaBuilder.greaterThan(id, lastId) : criteriaBuilder.lessThan(id, lastId);
+            if (ID.equals(order.getProperty())) {
+                return idAfter;
+            }
+
+            Expression<Comparable> sortValue = root.get(order.getProperty());
+            Predicate sortValueAfter = order.isAscending() ? criteriaBuilder.greaterThan(sortValue, (Comparable) lastValue) : criteriaBuilder.lessThan(sortValue, (Comparable) lastValue);
+            return criteriaBuilder.or(sortValueAfter, criteriaBuilder.and(criteriaBuilder.equal(sortValue, lastValue), idAfter));
+        };
+    }
+
+    private static void applyPredicate(Specification<Errand> specification, Root<Errand> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        if (specification == null) {
+            return;
+        }
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
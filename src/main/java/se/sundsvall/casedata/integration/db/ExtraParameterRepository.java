@@ -0,0 +1,35 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+import java.util.Map;
+
+import static se.sundsvall.casedata.integration.db.specification.ExtraParameterSpecification.hasExtraParameters;
+
+/**
+ * Search by extra parameters for repositories of entities with a map of extra parameters named extraParameters. The
+ * extra parameter tables are indexed on key and value, so every key and value is found with an index seek.
+ *
+ * @param <T> the entity type of the repository
+ */
+@NoRepositoryBean
+public interface ExtraParameterRepository<T> extends JpaSpecificationExecutor<T> {
+
+    /**
+     * @return the entities that have every key and value in extraParameters
+     */
+    default List<T> findAllByExtraParameters(Map<String, String> extraParameters) {
+        return findAll(hasExtraParameters(extraParameters));
+    }
+
+    /**
+     * @return Page of the entities that have every key and value in extraParameters
+     */
+    default Page<T> findAllByExtraParameters(Map<String, String> extraParameters, Pageable pageable) {
+        return findAll(hasExtraParameters(extraParameters), pageable);
+    }
+}
@@ -2,9 +2,8 @@ package se.sundsvall.casedata.integration.db;
 
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import se.sundsvall.casedata.integration.db.model.Facility;
 
 @JaversSpringDataAuditable
-public interface FacilityRepository extends JpaRepository<Facility, Long>, JpaSpecificationExecutor<Facility> {
+public interface FacilityRepository extends JpaRepository<Facility, Long>, ExtraParameterRepository<Facility> {
 }
@@ -2,9 +2,8 @@ package se.sundsvall.casedata.integration.db;
 
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import se.sundsvall.casedata.integration.db.model.Note;
 
 @JaversSpringDataAuditable
-public interface NoteRepository extends JpaRepository<Note, Long>, JpaSpecificationExecutor<Note> {
+public interface NoteRepository extends JpaRepository<Note, Long>, ExtraParameterRepository<Note> {
 }
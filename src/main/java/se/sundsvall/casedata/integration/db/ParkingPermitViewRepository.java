@@ -0,0 +1,30 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.casedata.integration.db.model.ParkingPermitView;
+import se.sundsvall.casedata.integration.db.model.enums.StakeholderRole;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ParkingPermitViewRepository extends JpaRepository<ParkingPermitView, Long> {
+
+    List<ParkingPermitView> findAllByOrderByErrandId();
+
+    /**
+     * Returns the parking permit with the given permit number, using the index on the permit number. A permit number is
+     * expected on one errand only, if it is on more errands the permit on the latest errand is returned.
+     */
+    Optional<ParkingPermitView> findFirstByPermitNumberOrderByErrandIdDesc(String permitNumber);
+
+    /**
+     * Returns the parking permits on errands with a stakeholder with the given person id and role. Uses the index on the
+     * person id of the stakeholders.
+     */
+    @Query("select v from parking_permit_view v " +
+            "where v.errandId in (select s.errand.id from stakeholder s join s.roles r where s.personId = :personId and r = :role) " +
+            "order by v.errandId")
+    List<ParkingPermitView> findAllByStakeholder(@Param("personId") String personId, @Param("role") StakeholderRole role);
+}
@@ -0,0 +1,117 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.casedata.integration.db.model.Errand;
+import se.sundsvall.casedata.integration.db.model.enums.DecisionType;
+
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static se.sundsvall.casedata.service.util.Constants.PERMIT_NUMBER_EXTRA_PARAMETER_KEY;
+import static se.sundsvall.casedata.service.util.Constants.PERMIT_STATUS_EXTRA_PARAMETER_KEY;
+
+/**
+ * Keeps parking_permit_view up to date with the errands, their extra parameters and their decisions.
+ * <p>
+ * Changed errands are collected during the transaction. Before commit the persistence context is flushed and the rows
+ * of the changed errands are written again from the errand tables with JDBC, so the view is committed or rolled back
+ * together with the change.
+ */
+@Component
+public class ParkingPermitViewUpdater {
+
+    private static final String SELECT_PARKING_PERMITS = """
+            select e.id, (select min(d.id) from decision d where d.errand_id = e.id and d.decision_type = ?),
+                n.extra_parameter_value, s.extra_parameter_value
+            from errand e
+            join errand_extra_parameters n on n.errand_id = e.id and n.extra_parameter_key = ?
+            left join errand_extra_parameters s on s.errand_id = e.id and s.extra_parameter_key = ?""";
+    private static final String INSERT_PARKING_PERMITS = "insert into parking_permit_view (errand_id, decision_id, permit_number, permit_status) " + SELECT_PARKING_PERMITS;
+    private static final String INSERT_PARKING_PERMIT = INSERT_PARKING_PERMITS + " where e.id = ?";
+    private static final String DELETE_PARKING_PERMITS = "delete from parking_permit_view";
+    private static final String DELETE_PARKING_PERMIT = DELETE_PARKING_PERMITS + " where errand_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public ParkingPermitViewUpdater(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Marks the errand as changed in the current transaction. Its row in the view is written before the transaction
+     * commits, once per errand.
+     */
+    public void errandChanged(Errand errand) {
+        if (errand == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        changedErrandsInTransaction().errands.add(errand);
+    }
+
+    /**
+     * Writes every row in the view again from the errand tables, for example to fill the view after it has been changed.
+     */
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update(DELETE_PARKING_PERMITS);
+        jdbcTemplate.update(INSERT_PARKING_PERMITS, DecisionType.FINAL.name(), PERMIT_NUMBER_EXTRA_PARAMETER_KEY, PERMIT_STATUS_EXTRA_PARAMETER_KEY);
+    }
+
+    private ChangedErrands changedErrandsInTransaction() {
+        var changedErrands = (ChangedErrands) TransactionSynchronizationManager.getResource(this);
+        if (changedErrands == null) {
+            var newChangedErrands = new ChangedErrands();
+            TransactionSynchronizationManager.bindResource(this, newChangedErrands);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    update(newChangedErrands.errands);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ParkingPermitViewUpdater.this);
+                }
+            });
+            changedErrands = newChangedErrands;
+        }
+        return changedErrands;
+    }
+
+    void update(Set<Errand> errands) {
+        // The rows are written from the tables, so pending changes must be in them first
+        entityManager.flush();
+
+        List<Long> errandIds = List.copyOf(errands).stream()
+                .map(Errand::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (errandIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(DELETE_PARKING_PERMIT, errandIds.stream()
+                .map(errandId -> new Object[]{errandId})
+                .toList());
+        jdbcTemplate.batchUpdate(INSERT_PARKING_PERMIT, errandIds.stream()
+                .map(errandId -> new Object[]{DecisionType.FINAL.name(), PERMIT_NUMBER_EXTRA_PARAMETER_KEY, PERMIT_STATUS_EXTRA_PARAMETER_KEY, errandId})
+                .toList());
+    }
+
+    private static final class ChangedErrands {
+        // The id of a new errand is not known until it is persisted, so errands are tracked by identity
+        private final Set<Errand> errands = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,25 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.casedata.integration.db.model.ProcessEngineOutboxEntry;
+import se.sundsvall.casedata.integration.db.model.enums.ProcessEngineCall;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface ProcessEngineOutboxRepository extends JpaRepository<ProcessEngineOutboxEntry, Long> {
+
+    /**
+     * Locks and returns the oldest entry per errand that is due for delivery. Newer entries for the same errand wait until
+     * the older one is delivered, which keeps the calls in order per errand. Entries locked by another node are skipped.
+     */
+    @Query(value = "SELECT * FROM process_engine_outbox o " +
+            "WHERE o.next_attempt_at <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM process_engine_outbox older WHERE older.errand_id = o.errand_id AND older.id < o.id) " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProcessEngineOutboxEntry> findDueForDelivery(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    List<ProcessEngineOutboxEntry> findByErrandIdAndTypeAndIdGreaterThan(Long errandId, ProcessEngineCall type, Long id);
+}
@@ -1,29 +1,45 @@
 package se.sundsvall.casedata.integration.db.listeners;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import se.sundsvall.casedata.integration.db.AttachmentContentStore;
+import se.sundsvall.casedata.integration.db.ErrandActivityRecorder;
 import se.sundsvall.casedata.integration.db.model.Attachment;
 
 import javax.persistence.PostPersist;
+import javax.persistence.PrePersist;
 import javax.persistence.PreRemove;
 import javax.persistence.PreUpdate;
 
 @Component
 public class AttachmentListener {
 
-    private final ErrandListener errandListener;
+    private final ErrandActivityRecorder errandActivityRecorder;
+    private final AttachmentContentStore attachmentContentStore;
 
-    public AttachmentListener(ErrandListener errandListener) {
-        this.errandListener = errandListener;
+    public AttachmentListener(ErrandActivityRecorder errandActivityRecorder, @Lazy AttachmentContentStore attachmentContentStore) {
+        this.errandActivityRecorder = errandActivityRecorder;
+        this.attachmentContentStore = attachmentContentStore;
+    }
+
+    @PrePersist
+    private void prePersist(Attachment attachment) {
+        attachmentContentStore.resolve(attachment);
     }
 
     @PostPersist
     private void postPersist(Attachment attachment) {
-        errandListener.updateErrandFields(attachment.getErrand());
+        errandActivityRecorder.childChanged(attachment.getErrand());
     }
 
     @PreUpdate
-    @PreRemove
     private void preUpdate(Attachment attachment) {
-        errandListener.updateErrandFields(attachment.getErrand());
+        errandActivityRecorder.childChanged(attachment.getErrand());
+    }
+
+    @PreRemove
+    private void preRemove(Attachment attachment) {
+        attachmentContentStore.release(attachment.getContent());
+        errandActivityRecorder.childChanged(attachment.getErrand());
     }
 }
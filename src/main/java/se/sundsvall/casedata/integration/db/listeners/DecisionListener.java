@@ -1,6 +1,9 @@
 package se.sundsvall.casedata.integration.db.listeners;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import se.sundsvall.casedata.integration.db.ErrandActivityRecorder;
+import se.sundsvall.casedata.integration.db.ParkingPermitViewUpdater;
 import se.sundsvall.casedata.integration.db.model.Decision;
 
 import javax.persistence.PostPersist;
@@ -10,20 +13,24 @@ import javax.persistence.PreUpdate;
 @Component
 public class DecisionListener {
 
-    private final ErrandListener errandListener;
+    private final ErrandActivityRecorder errandActivityRecorder;
+    private final ParkingPermitViewUpdater parkingPermitViewUpdater;
 
-    public DecisionListener(ErrandListener errandListener) {
-        this.errandListener = errandListener;
+    public DecisionListener(ErrandActivityRecorder errandActivityRecorder, @Lazy ParkingPermitViewUpdater parkingPermitViewUpdater) {
+        this.errandActivityRecorder = errandActivityRecorder;
+        this.parkingPermitViewUpdater = parkingPermitViewUpdater;
     }
 
     @PostPersist
     private void postPersist(Decision decision) {
-        errandListener.updateErrandFields(decision.getErrand());
+        errandActivityRecorder.childChanged(decision.getErrand());
+        parkingPermitViewUpdater.errandChanged(decision.getErrand());
     }
 
     @PreUpdate
     @PreRemove
     private void preUpdate(Decision decision) {
-        errandListener.updateErrandFields(decision.getErrand());
+        errandActivityRecorder.childChanged(decision.getErrand());
+        parkingPermitViewUpdater.errandChanged(decision.getErrand());
     }
 }
@@ -1,6 +1,7 @@
 package se.sundsvall.casedata.integration.db.listeners;
 
 import org.springframework.stereotype.Component;
+import se.sundsvall.casedata.integration.db.ErrandActivityRecorder;
 import se.sundsvall.casedata.integration.db.model.Facility;
 
 import javax.persistence.PostPersist;
@@ -10,20 +11,20 @@ import javax.persistence.PreUpdate;
 @Component
 public class FacilityListener {
 
-    private final ErrandListener errandListener;
+    private final ErrandActivityRecorder errandActivityRecorder;
 
-    public FacilityListener(ErrandListener errandListener) {
-        this.errandListener = errandListener;
+    public FacilityListener(ErrandActivityRecorder errandActivityRecorder) {
+        this.errandActivityRecorder = errandActivityRecorder;
     }
 
     @PostPersist
     private void postPersist(Facility facility) {
-        errandListener.updateErrandFields(facility.getErrand());
+        errandActivityRecorder.childChanged(facility.getErrand());
     }
 
     @PreUpdate
     @PreRemove
     private void preUpdate(Facility facility) {
-        errandListener.updateErrandFields(facility.getErrand());
+        errandActivityRecorder.childChanged(facility.getErrand());
     }
 }
@@ -2,6 +2,7 @@ package se.sundsvall.casedata.integration.db.listeners;
 
 import org.springframework.stereotype.Component;
 import se.sundsvall.casedata.api.filter.IncomingRequestFilter;
+import se.sundsvall.casedata.integration.db.ErrandActivityRecorder;
 import se.sundsvall.casedata.integration.db.model.Note;
 
 import javax.persistence.PostPersist;
@@ -12,24 +13,24 @@ import javax.persistence.PreUpdate;
 public class NoteListener {
 
     private final IncomingRequestFilter incomingRequestFilter;
-    private final ErrandListener errandListener;
+    private final ErrandActivityRecorder errandActivityRecorder;
 
-    public NoteListener(IncomingRequestFilter incomingRequestFilter, ErrandListener errandListener) {
+    public NoteListener(IncomingRequestFilter incomingRequestFilter, ErrandActivityRecorder errandActivityRecorder) {
         this.incomingRequestFilter = incomingRequestFilter;
-        this.errandListener = errandListener;
+        this.errandActivityRecorder = errandActivityRecorder;
     }
 
     @PostPersist
     private void postPersist(Note note) {
         note.setCreatedBy(incomingRequestFilter.getAdUser());
-        errandListener.updateErrandFields(note.getErrand());
+        errandActivityRecorder.childChanged(note.getErrand());
     }
 
     @PreUpdate
     @PreRemove
     private void preUpdate(Note note) {
         note.setUpdatedBy(incomingRequestFilter.getAdUser());
-        errandListener.updateErrandFields(note.getErrand());
+        errandActivityRecorder.childChanged(note.getErrand());
     }
 
 }
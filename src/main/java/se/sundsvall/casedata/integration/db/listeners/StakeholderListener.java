@@ -1,6 +1,7 @@
 package se.sundsvall.casedata.integration.db.listeners;
 
 import org.springframework.stereotype.Component;
+import se.sundsvall.casedata.integration.db.ErrandActivityRecorder;
 import se.sundsvall.casedata.integration.db.model.Stakeholder;
 
 import javax.persistence.PostPersist;
@@ -10,20 +11,20 @@ import javax.persistence.PreUpdate;
 @Component
 public class StakeholderListener {
 
-    private final ErrandListener errandListener;
+    private final ErrandActivityRecorder errandActivityRecorder;
 
-    public StakeholderListener(ErrandListener errandListener) {
-        this.errandListener = errandListener;
+    public StakeholderListener(ErrandActivityRecorder errandActivityRecorder) {
+        this.errandActivityRecorder = errandActivityRecorder;
     }
 
     @PostPersist
     private void postPersist(Stakeholder stakeholder) {
-        errandListener.updateErrandFields(stakeholder.getErrand());
+        errandActivityRecorder.childChanged(stakeholder.getErrand());
     }
 
     @PreUpdate
     @PreRemove
     private void preUpdate(Stakeholder stakeholder) {
-        errandListener.updateErrandFields(stakeholder.getErrand());
+        errandActivityRecorder.childChanged(stakeholder.getErrand());
     }
 }
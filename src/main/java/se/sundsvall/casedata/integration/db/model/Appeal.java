@@ -17,7 +17,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 @Entity(name = "appeal")
 @Getter
@@ -50,18 +49,4 @@ public class Appeal extends BaseEntity {
                 ", extraParameters=" + extraParameters +
                 "} " + super.toString();
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Appeal appeal)) return false;
-        if (!super.equals(o)) return false;
-        return Objects.equals(appealedBy, appeal.appealedBy) && Objects.equals(judicialAuthorisation, appeal.judicialAuthorisation) && Objects.equals(attachments, appeal.attachments) && Objects.equals(extraParameters, appeal.extraParameters);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), appealedBy, judicialAuthorisation, attachments, extraParameters);
-    }
-
 }
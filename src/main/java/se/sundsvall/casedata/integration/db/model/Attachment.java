@@ -1,11 +1,14 @@
 package se.sundsvall.casedata.integration.db.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
+import org.javers.core.metamodel.annotation.DiffIgnore;
 import se.sundsvall.casedata.integration.db.listeners.AttachmentListener;
 import se.sundsvall.casedata.integration.db.model.enums.AttachmentCategory;
 
+import javax.persistence.CascadeType;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
@@ -13,15 +16,15 @@ import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.ForeignKey;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
-import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapKeyColumn;
 import javax.validation.constraints.Size;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @Entity(name = "attachment")
 @EntityListeners(AttachmentListener.class)
@@ -51,30 +54,29 @@ public class Attachment extends BaseEntity {
     @Column(name = "mime_type")
     private String mimeType;
 
-    @Lob
-    @Column(name = "file")
-    private String file;
+    // Only loaded when the content is read through /attachments/{id}/content, never serialized, diffed or logged.
+    // Shared by attachments with the same content, so it is not removed together with the attachment.
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "attachment_content_id", foreignKey = @ForeignKey(name = "FK_attachment_attachment_content_id"))
+    @JsonIgnore
+    @DiffIgnore
+    private AttachmentContent content;
+
+    // Recorded in the history instead of the content, set together with the content by AttachmentContentStore
+    @Column(name = "content_digest", length = 64)
+    private String contentDigest;
+
+    @Column(name = "content_size")
+    private Long contentSize;
 
     @ElementCollection
     @CollectionTable(name = "attachment_extra_parameters",
-            joinColumns = @JoinColumn(name = "attachment_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_attachment_extra_parameters_attachment_id")))
+            joinColumns = @JoinColumn(name = "attachment_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_attachment_extra_parameters_attachment_id")),
+            indexes = @Index(name = "IDX_attachment_extra_parameters_key_value", columnList = "extra_parameter_key, extra_parameter_value"))
     @MapKeyColumn(name = "extra_parameter_key")
     @Column(name = "extra_parameter_value")
     private Map<String, String> extraParameters = new HashMap<>();
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Attachment that)) return false;
-        if (!super.equals(o)) return false;
-        return category == that.category && Objects.equals(name, that.name) && Objects.equals(note, that.note) && Objects.equals(extension, that.extension) && Objects.equals(mimeType, that.mimeType) && Objects.equals(file, that.file) && Objects.equals(extraParameters, that.extraParameters);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), category, name, note, extension, mimeType, file, extraParameters);
-    }
-
     @Override
     public String toString() {
         long errandId = errand == null ? 0 : errand.getId();
@@ -86,7 +88,8 @@ public class Attachment extends BaseEntity {
                 ", note='" + note + '\'' +
                 ", extension='" + extension + '\'' +
                 ", mimeType='" + mimeType + '\'' +
-                ", file='" + file + '\'' +
+                ", contentDigest='" + contentDigest + '\'' +
+                ", contentSize=" + contentSize +
                 ", extraParameters=" + extraParameters +
                 "} " + super.toString();
     }
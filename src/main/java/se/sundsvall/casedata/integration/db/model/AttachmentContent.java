@@ -0,0 +1,43 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.sql.Blob;
+
+/**
+ * The binary content of an attachment. Kept in its own table and loaded lazily, so that reading attachments only
+ * reads their metadata. Stored once per digest and shared by all attachments with the same content, see
+ * {@link se.sundsvall.casedata.integration.db.AttachmentContentStore}.
+ */
+@Entity(name = "attachment_content")
+@Table(uniqueConstraints = { @UniqueConstraint(name = "UK_attachment_content_digest", columnNames = { "digest" }) })
+@Getter
+@Setter
+public class AttachmentContent extends BaseEntity {
+
+    // SHA-256 of the file as lowercase hex
+    @Column(name = "digest", length = 64, nullable = false)
+    private String digest;
+
+    // The number of attachments referring to the content
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+
+    @Lob
+    @Column(name = "file")
+    private Blob file;
+
+    @Override
+    public String toString() {
+        return "AttachmentContent{" +
+                "digest='" + digest + '\'' +
+                ", referenceCount=" + referenceCount +
+                "} " + super.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import java.time.OffsetDateTime;
+
+/**
+ * An upload of attachment content in parts. The parts are kept until the upload is committed, which creates the
+ * attachment on the errand, or until the upload expires.
+ */
+@Entity(name = "attachment_upload")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentUpload {
+
+    // From attachment_upload_seq like the ids of BaseEntity, which is not extended since an upload has no version or updated time
+    @Id
+    @GeneratedValue(generator = "sequence_per_entity")
+    @GenericGenerator(name = "sequence_per_entity", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.CONFIG_PREFER_SEQUENCE_PER_ENTITY, value = "true"),
+            @Parameter(name = SequenceStyleGenerator.CONFIG_SEQUENCE_PER_ENTITY_SUFFIX, value = "_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")})
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "errand_id", nullable = false)
+    private Long errandId;
+
+    @CreationTimestamp
+    @Column(name = "created")
+    private OffsetDateTime created;
+
+    public AttachmentUpload(Long errandId) {
+        this.errandId = errandId;
+    }
+}
@@ -0,0 +1,65 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.sql.Blob;
+
+/**
+ * One part of an {@link AttachmentUpload}. The content of the attachment is the parts in order of part number.
+ */
+@Entity(name = "attachment_upload_part")
+@Table(uniqueConstraints = { @UniqueConstraint(name = "UK_attachment_upload_part_part_number", columnNames = { "attachment_upload_id", "part_number" }) })
+@Getter
+@Setter
+public class AttachmentUploadPart {
+
+    // From attachment_upload_part_seq, as for the entities extending BaseEntity
+    @Id
+    @GeneratedValue(generator = "sequence_per_entity")
+    @GenericGenerator(name = "sequence_per_entity", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.CONFIG_PREFER_SEQUENCE_PER_ENTITY, value = "true"),
+            @Parameter(name = SequenceStyleGenerator.CONFIG_SEQUENCE_PER_ENTITY_SUFFIX, value = "_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")})
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "attachment_upload_id", nullable = false, foreignKey = @ForeignKey(name = "FK_attachment_upload_part_attachment_upload_id"))
+    private AttachmentUpload upload;
+
+    @Column(name = "part_number", nullable = false)
+    private int partNumber;
+
+    // The number of bytes in the part
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Lob
+    @Column(name = "file")
+    private Blob file;
+
+    @Override
+    public String toString() {
+        return "AttachmentUploadPart{" +
+                "id=" + id +
+                ", partNumber=" + partNumber +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -2,14 +2,17 @@ package se.sundsvall.casedata.integration.db.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.javers.core.metamodel.annotation.DiffIgnore;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.persistence.Column;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import javax.persistence.Version;
@@ -21,8 +24,14 @@ import java.util.Objects;
 @Setter
 abstract class BaseEntity {
 
+    // One sequence per entity, e.g. errand_seq, handing out blocks of ids so that inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sequence_per_entity")
+    @GenericGenerator(name = "sequence_per_entity", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.CONFIG_PREFER_SEQUENCE_PER_ENTITY, value = "true"),
+            @Parameter(name = SequenceStyleGenerator.CONFIG_SEQUENCE_PER_ENTITY_SUFFIX, value = "_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")})
     @Column(name="id")
     @DiffIgnore
     private Long id;
@@ -51,16 +60,23 @@ abstract class BaseEntity {
                 '}';
     }
 
+    /**
+     * Entities are equal when they are of the same class and have the same id. Entities that are not persisted yet are
+     * only equal to themselves. Neither equals nor hashCode reads any other field, so lazy associations are never loaded
+     * and large fields are never hashed.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (!(o instanceof BaseEntity that)) return false;
-        return version == that.version && Objects.equals(id, that.id) && Objects.equals(created, that.created) && Objects.equals(updated, that.updated);
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        var that = (BaseEntity) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
     }
 
+    // Constant per class, so the hash code does not change when the id is assigned on persist
     @Override
     public int hashCode() {
-        return Objects.hash(id, version, created, updated);
+        return Hibernate.getClass(this).hashCode();
     }
 
 }
@@ -17,6 +17,7 @@ import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.ForeignKey;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapKeyColumn;
@@ -29,7 +30,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 @Entity(name = "decision")
 @EntityListeners(DecisionListener.class)
@@ -86,24 +86,12 @@ public class Decision extends BaseEntity {
 
     @ElementCollection
     @CollectionTable(name = "decision_extra_parameters",
-            joinColumns = @JoinColumn(name = "decision_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_decision_extra_parameters_decision_id")))
+            joinColumns = @JoinColumn(name = "decision_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_decision_extra_parameters_decision_id")),
+            indexes = @Index(name = "IDX_decision_extra_parameters_key_value", columnList = "extra_parameter_key, extra_parameter_value"))
     @MapKeyColumn(name = "extra_parameter_key")
     @Column(name = "extra_parameter_value")
     private Map<String, String> extraParameters = new HashMap<>();
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Decision decision)) return false;
-        if (!super.equals(o)) return false;
-        return decisionType == decision.decisionType && decisionOutcome == decision.decisionOutcome && Objects.equals(description, decision.description) && Objects.equals(law, decision.law) && Objects.equals(decidedBy, decision.decidedBy) && Objects.equals(decidedAt, decision.decidedAt) && Objects.equals(validFrom, decision.validFrom) && Objects.equals(validTo, decision.validTo) && Objects.equals(appeal, decision.appeal) && Objects.equals(attachments, decision.attachments) && Objects.equals(extraParameters, decision.extraParameters);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), decisionType, decisionOutcome, description, law, decidedBy, decidedAt, validFrom, validTo, appeal, attachments, extraParameters);
-    }
-
     @Override
     public String toString() {
         long errandId = errand == null ? 0 : errand.getId();
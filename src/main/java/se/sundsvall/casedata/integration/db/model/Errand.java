@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.OptimisticLock;
 import org.javers.core.metamodel.annotation.DiffIgnore;
 import org.springframework.format.annotation.DateTimeFormat;
 import se.sundsvall.casedata.integration.db.listeners.ErrandListener;
@@ -19,11 +20,15 @@ import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.ForeignKey;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.MapKeyColumn;
 import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
 import javax.persistence.OrderColumn;
+import javax.persistence.PrimaryKeyJoinColumn;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Size;
@@ -33,7 +38,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 @Entity(name = "errand")
 @Table(uniqueConstraints = { @UniqueConstraint(name = "UK_errand_errand_number", columnNames = { "errand_number" }) })
@@ -93,23 +97,29 @@ public class Errand extends BaseEntity {
     @Column(name = "process_id")
     private String processId;
 
+    // Changes to children are recorded in errand_activity and do not increment the version of the errand
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "errand")
+    @OptimisticLock(excluded = true)
     @JsonManagedReference
     private List<Stakeholder> stakeholders = new ArrayList<>();
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "errand")
+    @OptimisticLock(excluded = true)
     @JsonManagedReference
     private List<Facility> facilities = new ArrayList<>();
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "errand")
+    @OptimisticLock(excluded = true)
     @JsonManagedReference
     private List<Attachment> attachments = new ArrayList<>();
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "errand")
+    @OptimisticLock(excluded = true)
     @JsonManagedReference
     private List<Decision> decisions = new ArrayList<>();
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "errand")
+    @OptimisticLock(excluded = true)
     @JsonManagedReference
     private List<Note> notes = new ArrayList<>();
 
@@ -140,9 +150,17 @@ public class Errand extends BaseEntity {
     @DiffIgnore
     private String updatedBy;
 
+    // Changes to the children, read with the errand by one outer join. Null until a child has been changed.
+    // Detached together with the errand, so that streaming errands does not leave it in the persistence context
+    @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.DETACH)
+    @PrimaryKeyJoinColumn
+    @DiffIgnore
+    private ErrandActivity activity;
+
     @ElementCollection
     @CollectionTable(name = "errand_extra_parameters",
-            joinColumns = @JoinColumn(name = "errand_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_errand_extra_parameters_errand_id")))
+            joinColumns = @JoinColumn(name = "errand_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_errand_extra_parameters_errand_id")),
+            indexes = @Index(name = "IDX_errand_extra_parameters_key_value", columnList = "extra_parameter_key, extra_parameter_value"))
     @MapKeyColumn(name = "extra_parameter_key")
     @Column(name = "extra_parameter_value")
     private Map<String, String> extraParameters = new HashMap<>();
@@ -262,18 +280,4 @@ public class Errand extends BaseEntity {
                 ", extraParameters=" + extraParameters +
                 "} " + super.toString();
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Errand errand)) return false;
-        if (!super.equals(o)) return false;
-        return Objects.equals(errandNumber, errand.errandNumber) && Objects.equals(externalCaseId, errand.externalCaseId) && caseType == errand.caseType && priority == errand.priority && Objects.equals(description, errand.description) && Objects.equals(caseTitleAddition, errand.caseTitleAddition) && Objects.equals(diaryNumber, errand.diaryNumber) && Objects.equals(phase, errand.phase) && Objects.equals(statuses, errand.statuses) && Objects.equals(municipalityId, errand.municipalityId) && Objects.equals(startDate, errand.startDate) && Objects.equals(endDate, errand.endDate) && Objects.equals(applicationReceived, errand.applicationReceived) && Objects.equals(processId, errand.processId) && Objects.equals(stakeholders, errand.stakeholders) && Objects.equals(facilities, errand.facilities) && Objects.equals(attachments, errand.attachments) && Objects.equals(decisions, errand.decisions) && Objects.equals(notes, errand.notes) && Objects.equals(messageIds, errand.messageIds) && Objects.equals(createdByClient, errand.createdByClient) && Objects.equals(updatedByClient, errand.updatedByClient) && Objects.equals(createdBy, errand.createdBy) && Objects.equals(updatedBy, errand.updatedBy) && Objects.equals(extraParameters, errand.extraParameters);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), errandNumber, externalCaseId, caseType, priority, description, caseTitleAddition, diaryNumber, phase, statuses, municipalityId, startDate, endDate, applicationReceived, processId, stakeholders, facilities, attachments, decisions, notes, messageIds, createdByClient, updatedByClient, createdBy, updatedBy, extraParameters);
-    }
-
 }
@@ -0,0 +1,44 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.OffsetDateTime;
+
+/**
+ * Changes to the children of an errand (stakeholders, facilities, attachments, decisions and notes). Kept outside the
+ * errand row so that a child change does not take the optimistic lock on the errand. Written by
+ * {@link se.sundsvall.casedata.integration.db.ErrandActivityRecorder}.
+ */
+@Entity(name = "errand_activity")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrandActivity {
+
+    @Id
+    @Column(name = "errand_id")
+    private Long errandId;
+
+    @Column(name = "child_changes", nullable = false)
+    private Long childChanges;
+
+    @Column(name = "last_child_change")
+    private OffsetDateTime lastChildChange;
+
+    @Column(name = "last_child_change_by")
+    private String lastChildChangeBy;
+
+    @Column(name = "last_child_change_by_client")
+    private String lastChildChangeByClient;
+}
@@ -0,0 +1,50 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.io.Serializable;
+
+/**
+ * The last errand number that was handed out for a case type abbreviation and year.
+ */
+@Entity(name = "errand_number_sequence")
+@IdClass(ErrandNumberSequence.ErrandNumberSequenceId.class)
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrandNumberSequence {
+
+    @Id
+    @Column(name = "abbreviation")
+    private String abbreviation;
+
+    @Id
+    @Column(name = "year")
+    private Integer year;
+
+    @Column(name = "last_number", nullable = false)
+    private Long lastNumber;
+
+    @Getter
+    @Setter
+    @ToString
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrandNumberSequenceId implements Serializable {
+        private String abbreviation;
+        private Integer year;
+    }
+}
@@ -13,12 +13,12 @@ import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.ForeignKey;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapKeyColumn;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @Entity(name = "facility")
 @EntityListeners(FacilityListener.class)
@@ -48,24 +48,12 @@ public class Facility extends BaseEntity {
 
     @ElementCollection
     @CollectionTable(name = "facility_extra_parameters",
-            joinColumns = @JoinColumn(name = "facility_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_facility_extra_parameters_facility_id")))
+            joinColumns = @JoinColumn(name = "facility_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_facility_extra_parameters_facility_id")),
+            indexes = @Index(name = "IDX_facility_extra_parameters_key_value", columnList = "extra_parameter_key, extra_parameter_value"))
     @MapKeyColumn(name = "extra_parameter_key")
     @Column(name = "extra_parameter_value")
     private Map<String, String> extraParameters = new HashMap<>();
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Facility facility)) return false;
-        if (!super.equals(o)) return false;
-        return mainFacility == facility.mainFacility && Objects.equals(description, facility.description) && Objects.equals(address, facility.address) && Objects.equals(facilityCollectionName, facility.facilityCollectionName) && facilityType == facility.facilityType && Objects.equals(extraParameters, facility.extraParameters);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), description, address, facilityCollectionName, mainFacility, facilityType, extraParameters);
-    }
-
     @Override
     public String toString() {
         long errandId = errand == null ? 0 : errand.getId();
@@ -14,13 +14,13 @@ import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.ForeignKey;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapKeyColumn;
 import javax.validation.constraints.Size;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @Entity(name = "note")
 @EntityListeners(NoteListener.class)
@@ -53,7 +53,8 @@ public class Note extends BaseEntity {
 
     @ElementCollection
     @CollectionTable(name = "note_extra_parameters",
-            joinColumns = @JoinColumn(name = "note_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_note_extra_parameters_note_id")))
+            joinColumns = @JoinColumn(name = "note_id", referencedColumnName = "id", foreignKey = @ForeignKey(name = "FK_note_extra_parameters_note_id")),
+            indexes = @Index(name = "IDX_note_extra_parameters_key_value", columnList = "extra_parameter_key, extra_parameter_value"))
     @MapKeyColumn(name = "extra_parameter_key")
     @Column(name = "extra_parameter_value")
     private Map<String, String> extraParameters = new HashMap<>();
@@ -70,18 +71,4 @@ public class Note extends BaseEntity {
                 ", extraParameters=" + extraParameters +
                 "} " + super.toString();
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Note note)) return false;
-        if (!super.equals(o)) return false;
-        return Objects.equals(title, note.title) && Objects.equals(text, note.text) && Objects.equals(createdBy, note.createdBy) && Objects.equals(updatedBy, note.updatedBy) && Objects.equals(extraParameters, note.extraParameters);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), title, text, createdBy, updatedBy, extraParameters);
-    }
-
 }
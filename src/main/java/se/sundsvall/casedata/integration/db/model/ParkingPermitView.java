@@ -0,0 +1,43 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * One row per errand with a parking permit number, so that parking permits are read without loading the errands. Kept
+ * up to date by {@link se.sundsvall.casedata.integration.db.ParkingPermitViewUpdater}.
+ */
+@Entity(name = "parking_permit_view")
+@Table(indexes = @Index(name = "IDX_parking_permit_view_permit_number", columnList = "permit_number"))
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingPermitView {
+
+    @Id
+    @Column(name = "errand_id")
+    private Long errandId;
+
+    // The first final decision on the errand
+    @Column(name = "decision_id")
+    private Long decisionId;
+
+    @Column(name = "permit_number")
+    private String permitNumber;
+
+    @Column(name = "permit_status")
+    private String permitStatus;
+}
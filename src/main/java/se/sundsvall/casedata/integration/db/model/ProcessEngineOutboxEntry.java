@@ -0,0 +1,69 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import se.sundsvall.casedata.integration.db.model.enums.ProcessEngineCall;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.OffsetDateTime;
+
+/**
+ * A start-process or update-process call to ProcessEngine that is waiting to be delivered. Written in the same transaction as the
+ * errand change and removed when the call has succeeded.
+ */
+@Entity(name = "process_engine_outbox")
+@Table(indexes = @Index(name = "IDX_process_engine_outbox_errand_id", columnList = "errand_id"))
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessEngineOutboxEntry {
+
+    // Not from a pooled sequence like the other entities. The entries of an errand are delivered in order of id, and
+    // blocks of ids handed out to different nodes would not follow the order in which the entries were written
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "errand_id", nullable = false)
+    private Long errandId;
+
+    @Column(name = "type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ProcessEngineCall type;
+
+    @CreationTimestamp
+    @Column(name = "created")
+    private OffsetDateTime created;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public ProcessEngineOutboxEntry(Long errandId, ProcessEngineCall type, OffsetDateTime nextAttemptAt) {
+        this.errandId = errandId;
+        this.type = type;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
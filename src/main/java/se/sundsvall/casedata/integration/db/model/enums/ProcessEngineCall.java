@@ -0,0 +1,5 @@
+package se.sundsvall.casedata.integration.db.model.enums;
+
+public enum ProcessEngineCall {
+    START_PROCESS, UPDATE_PROCESS
+}
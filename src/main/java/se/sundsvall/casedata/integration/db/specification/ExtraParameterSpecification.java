@@ -0,0 +1,40 @@
+package se.sundsvall.casedata.integration.db.specification;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.MapJoin;
+import javax.persistence.criteria.Predicate;
+import java.util.Map;
+
+public final class ExtraParameterSpecification {
+
+    private static final String EXTRA_PARAMETERS = "extraParameters";
+
+    private ExtraParameterSpecification() {
+    }
+
+    /**
+     * Matches entities that has every key and value in extraParameters. One join on the extra parameters table per entry,
+     * each join is found with the index on key and value of the extra parameters.
+     *
+     * @param <T> an entity with a map of extra parameters named extraParameters
+     */
+    public static <T> Specification<T> hasExtraParameters(Map<String, String> extraParameters) {
+        return (root, query, criteriaBuilder) -> {
+            if (extraParameters == null || extraParameters.isEmpty()) {
+                return null;
+            }
+
+            Predicate[] predicates = extraParameters.entrySet().stream()
+                    .map(entry -> {
+                        MapJoin<T, String, String> join = root.joinMap(EXTRA_PARAMETERS);
+                        return criteriaBuilder.and(
+                                criteriaBuilder.equal(join.key(), entry.getKey()),
+                                criteriaBuilder.equal(join.value(), entry.getValue()));
+                    })
+                    .toArray(Predicate[]::new);
+
+            return criteriaBuilder.and(predicates);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package se.sundsvall.casedata.integration.processengine.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "integration.process-engine.outbox")
+public class ProcessEngineOutboxProperties {
+    // Time to wait for more changes on the same errand before update-process is called, all of them are sent as one call
+    private Duration coalesceWindow = Duration.ofSeconds(1);
+    // Max number of entries delivered per poll
+    private int batchSize = 50;
+    // Time an entry is reserved for the node delivering it, must cover the ProcessEngine call including its retries
+    private Duration lease = Duration.ofMinutes(2);
+    // Delay before the first retry, doubled for every failed attempt
+    private Duration initialBackoff = Duration.ofSeconds(5);
+    private Duration maxBackoff = Duration.ofMinutes(10);
+}
@@ -0,0 +1,34 @@
+package se.sundsvall.casedata.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.sundsvall.casedata.integration.db.AttachmentContentRepository;
+
+import javax.transaction.Transactional;
+
+/**
+ * Deletes attachment content that is no longer referred to by any attachment. Content is shared between attachments
+ * with the same digest, so it can not be deleted together with the attachment.
+ */
+@Component
+public class AttachmentContentCleanup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AttachmentContentCleanup.class);
+
+    private final AttachmentContentRepository attachmentContentRepository;
+
+    public AttachmentContentCleanup(AttachmentContentRepository attachmentContentRepository) {
+        this.attachmentContentRepository = attachmentContentRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${attachment.content.cleanup.fixed-delay:PT10M}")
+    @Transactional
+    public void deleteUnreferenced() {
+        int deleted = attachmentContentRepository.deleteUnreferenced();
+        if (deleted > 0) {
+            LOG.info("Deleted {} unreferenced attachment contents", deleted);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package se.sundsvall.casedata.service;
 
+import org.hibernate.engine.jdbc.BlobProxy;
 import org.javers.core.Changes;
 import org.javers.core.Javers;
 import org.javers.repository.jql.QueryBuilder;
@@ -8,12 +9,18 @@ import org.zalando.problem.Problem;
 import org.zalando.problem.Status;
 import org.zalando.problem.ThrowableProblem;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
+import se.sundsvall.casedata.integration.db.AttachmentContentStore;
 import se.sundsvall.casedata.integration.db.AttachmentRepository;
 import se.sundsvall.casedata.integration.db.model.Attachment;
+import se.sundsvall.casedata.service.util.SpooledContent;
 import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
 import se.sundsvall.casedata.service.util.mappers.PutMapper;
 
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 @Service
 @Transactional
@@ -21,11 +28,13 @@ public class AttachmentService {
 
     private static final ThrowableProblem ATTACHMENT_NOT_FOUND_PROBLEM = Problem.valueOf(Status.NOT_FOUND, "Attachment not found");
     private final AttachmentRepository attachmentRepository;
+    private final AttachmentContentStore attachmentContentStore;
 
     private final Javers javers;
 
-    public AttachmentService(AttachmentRepository attachmentRepository, Javers javers) {
+    public AttachmentService(AttachmentRepository attachmentRepository, AttachmentContentStore attachmentContentStore, Javers javers) {
         this.attachmentRepository = attachmentRepository;
+        this.attachmentContentStore = attachmentContentStore;
         this.javers = javers;
     }
 
@@ -48,7 +57,74 @@ public class AttachmentService {
 
     public void put(Long attachmentId, AttachmentDTO attachmentDTO) {
         var attachment = getAttachment(attachmentId);
+        var oldContent = attachment.getContent();
         PutMapper.INSTANCE.putAttachment(attachment, attachmentDTO);
+        if (attachment.getContent() != oldContent) {
+            attachmentContentStore.resolve(attachment);
+            attachmentContentStore.release(oldContent);
+        }
         attachmentRepository.save(attachment);
     }
+
+    /**
+     * @return the number of bytes in the content of the attachment, 0 for an attachment without content
+     */
+    public long getContentLength(Long attachmentId) {
+        var contentSize = getAttachment(attachmentId).getContentSize();
+        return contentSize == null ? 0 : contentSize;
+    }
+
+    /**
+     * Copies the content of the attachment to the output stream in chunks, see
+     * {@link AttachmentContentStore#read(Long, long, long, OutputStream)}. An attachment without content gives an empty
+     * stream.
+     */
+    public void readContent(Long attachmentId, OutputStream outputStream) {
+        readContent(attachmentId, 0, Long.MAX_VALUE, outputStream);
+    }
+
+    /**
+     * Copies a range of the content of the attachment to the output stream, used for Range requests.
+     *
+     * @param start  the index of the first byte to copy, starting at 0
+     * @param length the max number of bytes to copy
+     */
+    public void readContent(Long attachmentId, long start, long length, OutputStream outputStream) {
+        var attachment = getAttachment(attachmentId);
+        // Only the id is read from the content, which does not load it
+        var content = attachment.getContent();
+        var available = (attachment.getContentSize() == null ? 0 : attachment.getContentSize()) - start;
+        if (content == null || available <= 0) {
+            return;
+        }
+
+        try {
+            attachmentContentStore.read(content.getId(), start, Math.min(length, available), outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replaces the content of the attachment. The input stream is written to a temporary file while its digest is
+     * calculated, and is read from there when it is stored. Content that is already stored is not stored again.
+     *
+     * @param length the number of bytes in the input stream
+     */
+    public void putContent(Long attachmentId, InputStream inputStream, long length) {
+        var attachment = getAttachment(attachmentId);
+        try (var content = SpooledContent.of(inputStream); var contentInputStream = content.openInputStream()) {
+            if (content.getSize() != length) {
+                throw Problem.valueOf(Status.BAD_REQUEST, "Content-Length does not match the length of the content");
+            }
+
+            var oldContent = attachment.getContent();
+            attachmentContentStore.attach(attachment, content.getDigest(), content.getSize(), () -> BlobProxy.generateProxy(contentInputStream, content.getSize()));
+            attachmentContentStore.release(oldContent);
+            // Flushed before the temporary file is removed
+            attachmentRepository.saveAndFlush(attachment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
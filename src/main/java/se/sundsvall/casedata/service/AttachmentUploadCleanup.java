@@ -0,0 +1,42 @@
+package se.sundsvall.casedata.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.sundsvall.casedata.integration.db.AttachmentUploadPartRepository;
+import se.sundsvall.casedata.integration.db.AttachmentUploadRepository;
+
+import javax.transaction.Transactional;
+import java.time.OffsetDateTime;
+
+/**
+ * Deletes uploads that were never committed, together with their parts.
+ */
+@Component
+public class AttachmentUploadCleanup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AttachmentUploadCleanup.class);
+
+    private final AttachmentUploadRepository attachmentUploadRepository;
+    private final AttachmentUploadPartRepository attachmentUploadPartRepository;
+    private final AttachmentUploadProperties properties;
+
+    public AttachmentUploadCleanup(AttachmentUploadRepository attachmentUploadRepository, AttachmentUploadPartRepository attachmentUploadPartRepository,
+                                   AttachmentUploadProperties properties) {
+        this.attachmentUploadRepository = attachmentUploadRepository;
+        this.attachmentUploadPartRepository = attachmentUploadPartRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${attachment.upload.cleanup.fixed-delay:PT10M}")
+    @Transactional
+    public void deleteExpired() {
+        var before = OffsetDateTime.now().minus(properties.getExpiry());
+        attachmentUploadPartRepository.deleteByUploadCreatedBefore(before);
+        int deleted = attachmentUploadRepository.deleteByCreatedBefore(before);
+        if (deleted > 0) {
+            LOG.info("Deleted {} expired attachment uploads", deleted);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package se.sundsvall.casedata.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "attachment.upload")
+public class AttachmentUploadProperties {
+    // Max size of one part, each part is held in memory while it is written to the database
+    private DataSize maxPartSize = DataSize.ofMegabytes(10);
+    // Uploads that are not committed within this time are deleted together with their parts
+    private Duration expiry = Duration.ofDays(1);
+}
@@ -0,0 +1,204 @@
+package se.sundsvall.casedata.service;
+
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.stereotype.Service;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.casedata.api.model.AttachmentDTO;
+import se.sundsvall.casedata.api.model.AttachmentUploadDTO;
+import se.sundsvall.casedata.api.model.AttachmentUploadPartDTO;
+import se.sundsvall.casedata.integration.db.AttachmentContentStore;
+import se.sundsvall.casedata.integration.db.AttachmentUploadPartRepository;
+import se.sundsvall.casedata.integration.db.AttachmentUploadPartRepository.PartSummary;
+import se.sundsvall.casedata.integration.db.AttachmentUploadRepository;
+import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.model.Attachment;
+import se.sundsvall.casedata.integration.db.model.AttachmentUpload;
+import se.sundsvall.casedata.integration.db.model.AttachmentUploadPart;
+import se.sundsvall.casedata.service.util.SpooledContent;
+import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
+
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Uploads of attachment content in parts, so that large files do not have to be sent in one request and an upload can
+ * be resumed after a network error by sending the missing parts again. Committing the upload creates the attachment.
+ */
+@Service
+@Transactional
+public class AttachmentUploadService {
+
+    private static final ThrowableProblem UPLOAD_NOT_FOUND_PROBLEM = Problem.valueOf(Status.NOT_FOUND, "Upload not found");
+    private static final String ERRAND_WITH_ID_X_WAS_NOT_FOUND = "Errand with id: {0} was not found";
+    private static final String PART_X_IS_MISSING = "Part {0} is missing, parts must be numbered from 1 without gaps";
+
+    private final AttachmentUploadRepository attachmentUploadRepository;
+    private final AttachmentUploadPartRepository attachmentUploadPartRepository;
+    private final ErrandRepository errandRepository;
+    private final AttachmentContentStore attachmentContentStore;
+    private final ErrandService errandService;
+    private final AttachmentUploadProperties properties;
+
+    public AttachmentUploadService(AttachmentUploadRepository attachmentUploadRepository, AttachmentUploadPartRepository attachmentUploadPartRepository,
+                                   ErrandRepository errandRepository, AttachmentContentStore attachmentContentStore, ErrandService errandService,
+                                   AttachmentUploadProperties properties) {
+        this.attachmentUploadRepository = attachmentUploadRepository;
+        this.attachmentUploadPartRepository = attachmentUploadPartRepository;
+        this.errandRepository = errandRepository;
+        this.attachmentContentStore = attachmentContentStore;
+        this.errandService = errandService;
+        this.properties = properties;
+    }
+
+    public AttachmentUploadDTO createUpload(Long errandId) {
+        if (!errandRepository.existsById(errandId)) {
+            throw Problem.valueOf(Status.NOT_FOUND, MessageFormat.format(ERRAND_WITH_ID_X_WAS_NOT_FOUND, errandId));
+        }
+        return toDto(attachmentUploadRepository.save(new AttachmentUpload(errandId)), List.of());
+    }
+
+    public AttachmentUploadDTO findUpload(Long errandId, Long uploadId) {
+        var upload = getUpload(errandId, uploadId);
+        return toDto(upload, attachmentUploadPartRepository.findByUploadIdOrderByPartNumber(upload.getId()));
+    }
+
+    /**
+     * Stores a part of the upload. A part that is already received is replaced, so a part can be sent again if the
+     * client does not know whether it was received. The part is read before the upload is locked, and the lock makes
+     * concurrent puts of the same part, and a put during a commit or delete of the upload, wait for each other.
+     *
+     * @param length the number of bytes in the input stream
+     */
+    public void putPart(Long errandId, Long uploadId, int partNumber, InputStream inputStream, long length) {
+        if (length > properties.getMaxPartSize().toBytes()) {
+            throw Problem.valueOf(Status.REQUEST_ENTITY_TOO_LARGE, "Part is larger than the max part size of " + properties.getMaxPartSize().toBytes() + " bytes");
+        }
+
+        try (var content = SpooledContent.of(inputStream); var contentInputStream = content.openInputStream()) {
+            if (content.getSize() != length) {
+                throw Problem.valueOf(Status.BAD_REQUEST, "Content-Length does not match the length of the part");
+            }
+
+            var upload = lockUpload(errandId, uploadId);
+            attachmentUploadPartRepository.deleteByUploadIdAndPartNumber(upload.getId(), partNumber);
+
+            var part = new AttachmentUploadPart();
+            part.setUpload(upload);
+            part.setPartNumber(partNumber);
+            part.setSize(content.getSize());
+            part.setFile(BlobProxy.generateProxy(contentInputStream, content.getSize()));
+            // Flushed before the temporary file is removed
+            attachmentUploadPartRepository.saveAndFlush(part);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates the attachment on the errand with the parts in order as content, and deletes the upload. Content that is
+     * already stored is not stored again. The upload is locked before its parts are read, so a concurrent commit of the
+     * same upload waits and then gets 404.
+     */
+    public Attachment commit(Long errandId, Long uploadId, AttachmentDTO attachmentDTO, String ifMatch) {
+        if (attachmentDTO.getFile() != null) {
+            throw Problem.valueOf(Status.BAD_REQUEST, "file must not be set, the content of the attachment is the uploaded parts");
+        }
+
+        var upload = lockUpload(errandId, uploadId);
+        var parts = attachmentUploadPartRepository.findByUploadIdOrderByPartNumber(upload.getId());
+        verifyNoMissingParts(parts);
+
+        try (var content = SpooledContent.of(openParts(upload.getId(), parts)); var contentInputStream = content.openInputStream()) {
+            var attachment = EntityDtoMapper.INSTANCE.dtoToAttachment(attachmentDTO);
+            attachmentContentStore.attach(attachment, content.getDigest(), content.getSize(), () -> BlobProxy.generateProxy(contentInputStream, content.getSize()));
+            var result = errandService.addAttachment(errandId, attachment, ifMatch);
+
+            attachmentUploadPartRepository.deleteByUploadId(upload.getId());
+            attachmentUploadRepository.delete(upload);
+            // Flushed before the temporary file is removed
+            attachmentUploadRepository.flush();
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deleteUpload(Long errandId, Long uploadId) {
+        var upload = lockUpload(errandId, uploadId);
+        attachmentUploadPartRepository.deleteByUploadId(upload.getId());
+        attachmentUploadRepository.delete(upload);
+    }
+
+    private AttachmentUpload getUpload(Long errandId, Long uploadId) {
+        return attachmentUploadRepository.findByIdAndErrandId(uploadId, errandId).orElseThrow(() -> UPLOAD_NOT_FOUND_PROBLEM);
+    }
+
+    private AttachmentUpload lockUpload(Long errandId, Long uploadId) {
+        return attachmentUploadRepository.findForUpdateByIdAndErrandId(uploadId, errandId).orElseThrow(() -> UPLOAD_NOT_FOUND_PROBLEM);
+    }
+
+    private static void verifyNoMissingParts(List<PartSummary> parts) {
+        if (parts.isEmpty()) {
+            throw Problem.valueOf(Status.CONFLICT, MessageFormat.format(PART_X_IS_MISSING, 1));
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            if (parts.get(i).getPartNumber() != i + 1) {
+                throw Problem.valueOf(Status.CONFLICT, MessageFormat.format(PART_X_IS_MISSING, i + 1));
+            }
+        }
+    }
+
+    /**
+     * Reads the parts one at a time, so only one part is held in memory.
+     */
+    private InputStream openParts(Long uploadId, List<PartSummary> parts) {
+        var remainingParts = parts.iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return remainingParts.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return openPart(uploadId, remainingParts.next().getPartNumber());
+            }
+        });
+    }
+
+    private InputStream openPart(Long uploadId, int partNumber) {
+        var file = attachmentUploadPartRepository.findFile(uploadId, partNumber);
+        if (file == null) {
+            return InputStream.nullInputStream();
+        }
+
+        try {
+            return file.getBinaryStream();
+        } catch (SQLException e) {
+            throw Problem.valueOf(Status.INTERNAL_SERVER_ERROR, "Could not read part " + partNumber + " of upload with id: " + uploadId);
+        }
+    }
+
+    private static AttachmentUploadDTO toDto(AttachmentUpload upload, List<PartSummary> parts) {
+        return AttachmentUploadDTO.builder()
+                .id(upload.getId())
+                .errandId(upload.getErrandId())
+                .created(upload.getCreated())
+                .parts(parts.stream()
+                        .map(part -> AttachmentUploadPartDTO.builder()
+                                .partNumber(part.getPartNumber())
+                                .size(part.getSize())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
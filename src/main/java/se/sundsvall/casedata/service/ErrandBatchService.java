@@ -0,0 +1,148 @@
+package se.sundsvall.casedata.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zalando.problem.Status;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.casedata.api.model.ErrandBatchResultDTO;
+import se.sundsvall.casedata.api.model.ErrandDTO;
+import se.sundsvall.casedata.integration.db.ErrandNumberAllocator;
+import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.model.Errand;
+import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.groupingBy;
+
+/**
+ * Creates many errands in one call, e.g. when migrating errands from other systems. Errands are saved in chunks, one
+ * transaction per chunk, with errand numbers allocated in one block per case type. Processes are started in the
+ * background through the ProcessEngine outbox. An errand that fails does not stop the others.
+ */
+@Service
+public class ErrandBatchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ErrandBatchService.class);
+    private static final int CHUNK_SIZE = 100;
+
+    private final ErrandRepository errandRepository;
+    private final ErrandNumberAllocator errandNumberAllocator;
+    private final ProcessEngineService processEngineService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    public ErrandBatchService(ErrandRepository errandRepository, ErrandNumberAllocator errandNumberAllocator, ProcessEngineService processEngineService,
+                              TransactionTemplate transactionTemplate, EntityManager entityManager, Validator validator) {
+        this.errandRepository = errandRepository;
+        this.errandNumberAllocator = errandNumberAllocator;
+        this.processEngineService = processEngineService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    /**
+     * @return one result per errand, in the same order as the errands
+     */
+    public List<ErrandBatchResultDTO> saveErrandsAndStartProcesses(List<ErrandDTO> errandDTOs) {
+        var results = new ErrandBatchResultDTO[errandDTOs.size()];
+        var validIndexes = new ArrayList<Integer>();
+
+        for (int i = 0; i < errandDTOs.size(); i++) {
+            Set<ConstraintViolation<ErrandDTO>> violations = validator.validate(errandDTOs.get(i));
+            if (violations.isEmpty()) {
+                validIndexes.add(i);
+            } else {
+                results[i] = failed(i, Status.BAD_REQUEST.getStatusCode(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        for (int from = 0; from < validIndexes.size(); from += CHUNK_SIZE) {
+            var chunk = validIndexes.subList(from, Math.min(from + CHUNK_SIZE, validIndexes.size()));
+            try {
+                saveChunk(errandDTOs, chunk, results);
+            } catch (RuntimeException e) {
+                // Save the errands in the chunk one by one to find the ones that fail
+                chunk.forEach(index -> saveOne(errandDTOs, index, results));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void saveOne(List<ErrandDTO> errandDTOs, int index, ErrandBatchResultDTO[] results) {
+        try {
+            saveChunk(errandDTOs, List.of(index), results);
+        } catch (ThrowableProblem e) {
+            results[index] = failed(index, e.getStatus() == null ? Status.INTERNAL_SERVER_ERROR.getStatusCode() : e.getStatus().getStatusCode(), e.getDetail());
+        } catch (RuntimeException e) {
+            LOG.warn("Errand at index: {} could not be saved", index, e);
+            results[index] = failed(index, Status.INTERNAL_SERVER_ERROR.getStatusCode(), "Errand could not be saved");
+        }
+    }
+
+    private void saveChunk(List<ErrandDTO> errandDTOs, List<Integer> indexes, ErrandBatchResultDTO[] results) {
+        try {
+            var errands = transactionTemplate.execute(status -> {
+                var chunk = indexes.stream()
+                        .map(index -> EntityDtoMapper.INSTANCE.dtoToErrand(errandDTOs.get(index)))
+                        .toList();
+                allocateErrandNumbers(chunk);
+
+                var savedErrands = errandRepository.saveAll(chunk);
+                savedErrands.forEach(errand -> processEngineService.scheduleStartProcess(errand.getId()));
+                entityManager.flush();
+                return savedErrands;
+            });
+
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = created(indexes.get(i), errands.get(i));
+            }
+        } finally {
+            // The persistence context lives for the whole request, keep it from growing with every chunk
+            entityManager.clear();
+        }
+    }
+
+    private void allocateErrandNumbers(List<Errand> errands) {
+        errands.stream()
+                .collect(groupingBy(Errand::getCaseType))
+                .forEach((caseType, errandsWithCaseType) -> {
+                    var errandNumbers = errandNumberAllocator.allocate(caseType, errandsWithCaseType.size());
+                    for (int i = 0; i < errandsWithCaseType.size(); i++) {
+                        errandsWithCaseType.get(i).setErrandNumber(errandNumbers.get(i));
+                    }
+                });
+    }
+
+    private static ErrandBatchResultDTO created(int index, Errand errand) {
+        return ErrandBatchResultDTO.builder()
+                .index(index)
+                .id(errand.getId())
+                .errandNumber(errand.getErrandNumber())
+                .status(Status.CREATED.getStatusCode())
+                .build();
+    }
+
+    private static ErrandBatchResultDTO failed(int index, int status, String detail) {
+        return ErrandBatchResultDTO.builder()
+                .index(index)
+                .status(status)
+                .detail(detail)
+                .build();
+    }
+}
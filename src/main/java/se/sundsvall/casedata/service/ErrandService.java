@@ -7,32 +7,44 @@ import org.javers.core.Javers;
 import org.javers.repository.jql.QueryBuilder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.zalando.problem.Problem;
 import org.zalando.problem.Status;
 import org.zalando.problem.ThrowableProblem;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
 import se.sundsvall.casedata.api.model.DecisionDTO;
+import se.sundsvall.casedata.api.model.ErrandCursorPageDTO;
 import se.sundsvall.casedata.api.model.ErrandDTO;
 import se.sundsvall.casedata.api.model.NoteDTO;
 import se.sundsvall.casedata.api.model.PatchErrandDTO;
 import se.sundsvall.casedata.api.model.StakeholderDTO;
 import se.sundsvall.casedata.api.model.StatusDTO;
+import se.sundsvall.casedata.integration.db.AttachmentRepository;
+import se.sundsvall.casedata.integration.db.DecisionRepository;
 import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.NoteRepository;
+import se.sundsvall.casedata.integration.db.StakeholderRepository;
 import se.sundsvall.casedata.integration.db.model.Attachment;
 import se.sundsvall.casedata.integration.db.model.Decision;
 import se.sundsvall.casedata.integration.db.model.Errand;
 import se.sundsvall.casedata.integration.db.model.Note;
 import se.sundsvall.casedata.integration.db.model.Stakeholder;
+import se.sundsvall.casedata.service.util.ErrandAssociation;
+import se.sundsvall.casedata.service.util.ErrandCursor;
+import se.sundsvall.casedata.service.util.ErrandETag;
 import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
 import se.sundsvall.casedata.service.util.mappers.PatchMapper;
 
 import java.text.MessageFormat;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static se.sundsvall.casedata.integration.db.specification.ExtraParameterSpecification.hasExtraParameters;
 
 @Service
 public class ErrandService {
@@ -44,13 +56,24 @@ public class ErrandService {
     private static final String NOTE_WITH_ID_X_WAS_NOT_FOUND_ON_ERRAND_WITH_ID_X = "Note with id: {0} was not found on errand with id: {1}";
     private static final String STAKEHOLDER_WITH_ID_X_WAS_NOT_FOUND_ON_ERRAND_WITH_ID_X = "Stakeholder with id: {0} was not found on errand with id: {1}";
     private static final String ATTACHMENT_WITH_ID_X_WAS_NOT_FOUND_ON_ERRAND_WITH_ID_X = "Attachment with id: {0} was not found on errand with id: {1}";
+    private static final String ERRAND_WITH_ID_X_HAS_BEEN_CHANGED = "Errand with id: {0} has been changed, current ETag is: {1}";
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
     private final ErrandRepository errandRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final DecisionRepository decisionRepository;
+    private final NoteRepository noteRepository;
+    private final StakeholderRepository stakeholderRepository;
 
     private final Javers javers;
     private final ProcessEngineService processEngineService;
 
-    public ErrandService(ErrandRepository errandRepository, Javers javers, ProcessEngineService processEngineService) {
+    public ErrandService(ErrandRepository errandRepository, AttachmentRepository attachmentRepository, DecisionRepository decisionRepository,
+                         NoteRepository noteRepository, StakeholderRepository stakeholderRepository, Javers javers, ProcessEngineService processEngineService) {
         this.errandRepository = errandRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.decisionRepository = decisionRepository;
+        this.noteRepository = noteRepository;
+        this.stakeholderRepository = stakeholderRepository;
         this.javers = javers;
         this.processEngineService = processEngineService;
     }
@@ -87,24 +110,23 @@ public class ErrandService {
         }
     }
 
-    public ErrandDTO findById(Long id) {
-        return EntityDtoMapper.INSTANCE.errandToDto(errandRepository.findById(id).orElseThrow(() -> ERRAND_NOT_FOUND_PROBLEM));
+    /**
+     * @return ErrandDTO with only the given associations
+     */
+    public ErrandDTO findById(Long id, Set<ErrandAssociation> associations) {
+        return EntityDtoMapper.INSTANCE.errandToDto(errandRepository.findById(id).orElseThrow(() -> ERRAND_NOT_FOUND_PROBLEM), associations);
     }
 
     /**
-     * @return Page of ErrandDTO without duplicates
+     * @return Page of ErrandDTO without duplicates, with only the given associations
      */
-    public Page<ErrandDTO> findAll(Specification<Errand> specification, Map<String, String> extraParameters, Pageable pageable) {
-        // Extract all ID's and remove duplicates
-        List<Long> allIds = errandRepository.findAll(specification).stream()
-                .filter(errandDTO -> hashmapContainsAllKeyAndValues(errandDTO.getExtraParameters(), extraParameters))
-                .map(Errand::getId)
-                .collect(Collectors.toSet())
-                .stream().toList();
-
-        // Get errands without duplicates
-        Page<ErrandDTO> errandDTOPage = errandRepository.findAllByIdIn(allIds, pageable)
-                .map(EntityDtoMapper.INSTANCE::errandToDto);
+    public Page<ErrandDTO> findAll(Specification<Errand> specification, Map<String, String> extraParameters, Set<ErrandAssociation> associations, Pageable pageable) {
+        // Filtering on extraParameters and removal of duplicates is done in the database
+        Specification<Errand> fullSpecification = Specification.where(specification)
+                .and(hasExtraParameters(extraParameters));
+
+        Page<ErrandDTO> errandDTOPage = errandRepository.findAllPaged(fullSpecification, pageable)
+                .map(errand -> EntityDtoMapper.INSTANCE.errandToDto(errand, associations));
 
         if (errandDTOPage.isEmpty()) {
             throw ERRAND_NOT_FOUND_PROBLEM;
@@ -113,25 +135,92 @@ public class ErrandService {
         return errandDTOPage;
     }
 
-    private boolean hashmapContainsAllKeyAndValues(Map<String, String> map, Map<String, String> mapToCheck) {
-        for (Map.Entry<String, String> entry : mapToCheck.entrySet()) {
-            String mapValue = map.get(entry.getKey());
-            if (!entry.getValue().equals(mapValue)) {
-                return false;
-            }
+    /**
+     * Keyset paged search. The cursor is blank on the first call, after that nextCursor from the previous page is used.
+     *
+     * @return Page of ErrandDTO, with only the given associations, and a cursor to the next page (null on the last page)
+     */
+    public ErrandCursorPageDTO findAllWithCursor(Specification<Errand> specification, Map<String, String> extraParameters, Set<ErrandAssociation> associations, String cursor, Pageable pageable) {
+        ErrandCursor errandCursor = cursor == null || cursor.isBlank() ? ErrandCursor.first(pageable.getSort()) : ErrandCursor.decode(cursor);
+        int size = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_CURSOR_PAGE_SIZE;
+
+        Specification<Errand> fullSpecification = Specification.where(specification)
+                .and(hasExtraParameters(extraParameters));
+
+        // Fetch one extra errand to know if there is a next page, without a count query
+        List<Errand> errands = errandRepository.findAllAfter(fullSpecification, errandCursor.order(), errandCursor.lastValue(), errandCursor.lastId(), size + 1);
+        if (errands.isEmpty()) {
+            throw ERRAND_NOT_FOUND_PROBLEM;
         }
-        return true;
+
+        boolean hasNext = errands.size() > size;
+        List<Errand> content = hasNext ? errands.subList(0, size) : errands;
+
+        return ErrandCursorPageDTO.builder()
+                .content(content.stream().map(errand -> EntityDtoMapper.INSTANCE.errandToDto(errand, associations)).toList())
+                .nextCursor(hasNext ? errandCursor.next(content.get(size - 1)).encode() : null)
+                .build();
+    }
+
+    /**
+     * Full-text search, see {@link se.sundsvall.casedata.integration.db.ErrandSearchRepository#search(String, Pageable)}.
+     *
+     * @return Page of ErrandDTO in order of relevance, with only the given associations
+     */
+    public Page<ErrandDTO> search(String text, Set<ErrandAssociation> associations, Pageable pageable) {
+        Page<ErrandDTO> errandDTOPage = errandRepository.search(text, pageable)
+                .map(errand -> EntityDtoMapper.INSTANCE.errandToDto(errand, associations));
+
+        if (errandDTOPage.isEmpty()) {
+            throw ERRAND_NOT_FOUND_PROBLEM;
+        }
+
+        return errandDTOPage;
+    }
+
+    /**
+     * Maps every matching errand to ErrandDTO and hands it to the consumer, one at a time, without loading all errands into memory.
+     * The errands are read in a read-only transaction, so Hibernate neither keeps snapshots of them nor flushes them.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Specification<Errand> specification, Map<String, String> extraParameters, Consumer<ErrandDTO> consumer) {
+        Specification<Errand> fullSpecification = Specification.where(specification)
+                .and(hasExtraParameters(extraParameters));
+
+        errandRepository.streamAll(fullSpecification, errand -> consumer.accept(EntityDtoMapper.INSTANCE.errandToDto(errand)));
     }
 
     public Errand getErrand(Long errandId) {
         return errandRepository.findById(errandId).orElseThrow(() -> Problem.valueOf(Status.NOT_FOUND, MessageFormat.format("Errand with id: {0} was not found", errandId)));
     }
 
+    /**
+     * Gets the errand to change, verifying that the change is based on the current version of the errand. When If-Match
+     * is sent the errand is locked until the change is committed, since changes to the children do not increment the
+     * errand version and would otherwise not be caught when two changes based on the same version are committed.
+     *
+     * @param ifMatch value of the If-Match header, null if the header was not sent
+     */
+    private Errand getErrand(Long errandId, String ifMatch) {
+        if (ifMatch == null) {
+            return getErrand(errandId);
+        }
+
+        var errand = errandRepository.findForUpdateById(errandId).orElseThrow(() -> Problem.valueOf(Status.NOT_FOUND, MessageFormat.format("Errand with id: {0} was not found", errandId)));
+        var version = ErrandETag.versionOf(errand);
+        if (!ErrandETag.matches(ifMatch, version)) {
+            throw Problem.valueOf(Status.PRECONDITION_FAILED, MessageFormat.format(ERRAND_WITH_ID_X_HAS_BEEN_CHANGED, errandId, ErrandETag.of(version)));
+        }
+        return errand;
+    }
+
     //////////////////////////////
     // POST operations
     //////////////////////////////
     public ErrandDTO saveErrandAndStartProcess(ErrandDTO errandDTO) {
         var errand = EntityDtoMapper.INSTANCE.dtoToErrand(errandDTO);
+        // The errand number is read only, a new one is generated when the errand is saved
+        errand.setErrandNumber(null);
 
         Errand resultErrand = errandRepository.save(errand);
 
@@ -152,8 +241,9 @@ public class ErrandService {
     //////////////////////////////
 
     @Retry(name = "OptimisticLocking")
-    public void deleteAttachmentOnErrand(Long errandId, Long attachmentId) {
-        Errand errand = getErrand(errandId);
+    @Transactional
+    public void deleteAttachmentOnErrand(Long errandId, Long attachmentId, String ifMatch) {
+        Errand errand = getErrand(errandId, ifMatch);
         var attachmentToRemove = errand.getAttachments().stream().filter(attachment -> attachment.getId().equals(attachmentId)).findAny();
 
         if (attachmentToRemove.isPresent()) {
@@ -166,8 +256,9 @@ public class ErrandService {
     }
 
     @Retry(name = "OptimisticLocking")
-    public void deleteStakeholderOnErrand(Long errandId, Long stakeholderId) {
-        Errand errand = getErrand(errandId);
+    @Transactional
+    public void deleteStakeholderOnErrand(Long errandId, Long stakeholderId, String ifMatch) {
+        Errand errand = getErrand(errandId, ifMatch);
         var stakeholderToRemove = errand.getStakeholders().stream().filter(stakeholder -> stakeholder.getId().equals(stakeholderId)).findAny();
 
         if (stakeholderToRemove.isPresent()) {
@@ -180,8 +271,9 @@ public class ErrandService {
     }
 
     @Retry(name = "OptimisticLocking")
-    public void deleteDecisionOnErrand(Long errandId, Long decisionId) {
-        Errand errand = getErrand(errandId);
+    @Transactional
+    public void deleteDecisionOnErrand(Long errandId, Long decisionId, String ifMatch) {
+        Errand errand = getErrand(errandId, ifMatch);
         Decision decisionToRemove = errand.getDecisions().stream().filter(decision -> decision.getId().equals(decisionId)).findAny().orElseThrow(() -> Problem.valueOf(Status.NOT_FOUND, MessageFormat.format(DECISION_WITH_ID_X_WAS_NOT_FOUND_ON_ERRAND_WITH_ID_X, decisionId, errandId)));
 
         errand.getDecisions().remove(decisionToRemove);
@@ -190,8 +282,9 @@ public class ErrandService {
     }
 
     @Retry(name = "OptimisticLocking")
-    public void deleteNoteOnErrand(Long errandId, Long noteId) {
-        Errand errand = getErrand(errandId);
+    @Transactional
+    public void deleteNoteOnErrand(Long errandId, Long noteId, String ifMatch) {
+        Errand errand = getErrand(errandId, ifMatch);
         Note noteToRemove = errand.getNotes().stream().filter(note -> note.getId().equals(noteId)).findAny().orElseThrow(() -> Problem.valueOf(Status.NOT_FOUND, MessageFormat.format(NOTE_WITH_ID_X_WAS_NOT_FOUND_ON_ERRAND_WITH_ID_X, noteId, errandId)));
 
         errand.getNotes().remove(noteToRemove);
@@ -203,68 +296,87 @@ public class ErrandService {
     //////////////////////////////
 
     @Retry(name = "OptimisticLocking")
-    public void patchErrand(Long id, PatchErrandDTO patchErrandDTO) {
-        Errand oldErrand = getErrand(id);
+    @Transactional
+    public void patchErrand(Long id, PatchErrandDTO patchErrandDTO, String ifMatch) {
+        Errand oldErrand = getErrand(id, ifMatch);
         PatchMapper.INSTANCE.updateErrand(oldErrand, patchErrandDTO);
         saveErrandAndUpdateProcess(oldErrand);
     }
 
     @Retry(name = "OptimisticLocking")
-    public Attachment patchErrand(Long id, AttachmentDTO attachmentDTO) {
-        var oldErrand = getErrand(id);
-        oldErrand.addAttachment(EntityDtoMapper.INSTANCE.dtoToAttachment(attachmentDTO));
-        var result = saveErrandAndUpdateProcess(oldErrand).getAttachments();
-        result.sort(Comparator.comparing(Attachment::getId).reversed());
-        return result.get(0);
+    @Transactional
+    public Attachment patchErrand(Long id, AttachmentDTO attachmentDTO, String ifMatch) {
+        return addAttachment(id, EntityDtoMapper.INSTANCE.dtoToAttachment(attachmentDTO), ifMatch);
+    }
+
+    /**
+     * Adds an attachment whose content is already set, e.g. from a committed upload. Not retried, since the content
+     * can only be read once.
+     */
+    @Transactional
+    public Attachment addAttachment(Long id, Attachment attachment, String ifMatch) {
+        attachment.setErrand(getErrand(id, ifMatch));
+        return saveChildAndUpdateProcess(attachmentRepository, attachment, id);
     }
 
     @Retry(name = "OptimisticLocking")
-    public Stakeholder patchErrand(Long id, StakeholderDTO stakeholderDTO) {
-        var oldErrand = getErrand(id);
-        oldErrand.addStakeholder(EntityDtoMapper.INSTANCE.dtoToStakeholder(stakeholderDTO));
-        var result = saveErrandAndUpdateProcess(oldErrand).getStakeholders();
-        result.sort(Comparator.comparing(Stakeholder::getId).reversed());
-        return result.get(0);
+    @Transactional
+    public Stakeholder patchErrand(Long id, StakeholderDTO stakeholderDTO, String ifMatch) {
+        var stakeholder = EntityDtoMapper.INSTANCE.dtoToStakeholder(stakeholderDTO);
+        stakeholder.setErrand(getErrand(id, ifMatch));
+        return saveChildAndUpdateProcess(stakeholderRepository, stakeholder, id);
     }
 
     @Retry(name = "OptimisticLocking")
-    public void patchErrand(Long id, StatusDTO statusDTO) {
-        var oldErrand = getErrand(id);
+    @Transactional
+    public void patchErrand(Long id, StatusDTO statusDTO, String ifMatch) {
+        var oldErrand = getErrand(id, ifMatch);
         oldErrand.getStatuses().add(EntityDtoMapper.INSTANCE.dtoToStatus(statusDTO));
         saveErrandAndUpdateProcess(oldErrand);
     }
 
     @Retry(name = "OptimisticLocking")
-    public Note patchErrand(Long id, NoteDTO noteDTO) {
-        Errand oldErrand = getErrand(id);
-        oldErrand.addNote(EntityDtoMapper.INSTANCE.dtoToNote(noteDTO));
-        var result = saveErrandAndUpdateProcess(oldErrand).getNotes();
-        result.sort(Comparator.comparing(Note::getId).reversed());
-        return result.get(0);
+    @Transactional
+    public Note patchErrand(Long id, NoteDTO noteDTO, String ifMatch) {
+        var note = EntityDtoMapper.INSTANCE.dtoToNote(noteDTO);
+        note.setErrand(getErrand(id, ifMatch));
+        return saveChildAndUpdateProcess(noteRepository, note, id);
     }
 
     @Retry(name = "OptimisticLocking")
-    public Decision patchErrand(Long id, DecisionDTO decisionDTO) {
-        var oldErrand = getErrand(id);
-        oldErrand.addDecision(EntityDtoMapper.INSTANCE.dtoToDecision(decisionDTO));
-        var result = saveErrandAndUpdateProcess(oldErrand).getDecisions();
-        result.sort(Comparator.comparing(Decision::getId).reversed());
-        return result.get(0);
+    @Transactional
+    public Decision patchErrand(Long id, DecisionDTO decisionDTO, String ifMatch) {
+        var decision = EntityDtoMapper.INSTANCE.dtoToDecision(decisionDTO);
+        decision.setErrand(getErrand(id, ifMatch));
+        return saveChildAndUpdateProcess(decisionRepository, decision, id);
     }
 
     @Retry(name = "OptimisticLocking")
-    public void patchErrandWithMessage(Long id, List<String> messageIds) {
-        var oldErrand = getErrand(id);
+    @Transactional
+    public void patchErrandWithMessage(Long id, List<String> messageIds, String ifMatch) {
+        var oldErrand = getErrand(id, ifMatch);
         oldErrand.getMessageIds().addAll(messageIds);
         saveErrandAndUpdateProcess(oldErrand);
     }
 
     /**
-     * Use this method to save(update) existing errand and update the process in ProcessEngine
+     * Use this method to save(update) existing errand and update the process in ProcessEngine. The caller must be
+     * transactional, so that the update-process call is put in the outbox in the same transaction as the errand change.
      */
     private Errand saveErrandAndUpdateProcess(Errand errand) {
         Errand result = errandRepository.save(errand);
-        processEngineService.updateProcess(errand.getId());
+        processEngineService.scheduleUpdateProcess(errand.getId());
+        return result;
+    }
+
+    /**
+     * Inserts a new child of the errand with its own repository instead of adding it to the errand and saving the whole
+     * errand. Only the errand row is loaded, none of its lists. The child listeners record the change in errand_activity,
+     * and the version of the errand is deliberately left unchanged. The child repositories are audited by Javers.
+     */
+    private <T> T saveChildAndUpdateProcess(JpaRepository<T, Long> repository, T child, Long errandId) {
+        T result = repository.save(child);
+        processEngineService.scheduleUpdateProcess(errandId);
         return result;
     }
 
@@ -273,21 +385,24 @@ public class ErrandService {
     //////////////////////////////
 
     @Retry(name = "OptimisticLocking")
-    public void putStatusesOnErrand(Long id, List<StatusDTO> statusDTOList) {
-        var oldErrand = getErrand(id);
+    @Transactional
+    public void putStatusesOnErrand(Long id, List<StatusDTO> statusDTOList, String ifMatch) {
+        var oldErrand = getErrand(id, ifMatch);
         oldErrand.getStatuses().clear();
         oldErrand.getStatuses().addAll(statusDTOList.stream().map(EntityDtoMapper.INSTANCE::dtoToStatus).toList());
         saveErrandAndUpdateProcess(oldErrand);
     }
 
-    public void putAttachmentsOnErrand(Long id, List<AttachmentDTO> attachmentDTOList) {
-        Errand oldErrand = getErrand(id);
+    @Transactional
+    public void putAttachmentsOnErrand(Long id, List<AttachmentDTO> attachmentDTOList, String ifMatch) {
+        Errand oldErrand = getErrand(id, ifMatch);
         oldErrand.setAttachments(attachmentDTOList.stream().map(EntityDtoMapper.INSTANCE::dtoToAttachment).toList());
         saveErrandAndUpdateProcess(oldErrand);
     }
 
-    public void putStakeholdersOnErrand(Long id, List<StakeholderDTO> stakeholderDTOList) {
-        Errand oldErrand = getErrand(id);
+    @Transactional
+    public void putStakeholdersOnErrand(Long id, List<StakeholderDTO> stakeholderDTOList, String ifMatch) {
+        Errand oldErrand = getErrand(id, ifMatch);
         oldErrand.setStakeholders(stakeholderDTOList.stream().map(EntityDtoMapper.INSTANCE::dtoToStakeholder).toList());
         saveErrandAndUpdateProcess(oldErrand);
     }
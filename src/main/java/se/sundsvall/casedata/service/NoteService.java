@@ -14,6 +14,8 @@ import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
 import se.sundsvall.casedata.service.util.mappers.PatchMapper;
 import se.sundsvall.casedata.service.util.mappers.PutMapper;
 
+import javax.transaction.Transactional;
+
 @Service
 public class NoteService {
     private static final ThrowableProblem NOTE_NOT_FOUND_PROBLEM = Problem.valueOf(Status.NOT_FOUND, "Note not found");
@@ -38,18 +40,20 @@ public class NoteService {
         return javers.getJsonConverter().toJson(changes);
     }
 
+    @Transactional
     public void patchNote(Long id, NoteDTO noteDTO) {
         Note note = getNote(id);
         PatchMapper.INSTANCE.updateNote(note, noteDTO);
         noteRepository.save(note);
-        processEngineService.updateProcess(note.getErrand().getId());
+        processEngineService.scheduleUpdateProcess(note.getErrand().getId());
     }
 
+    @Transactional
     public void put(Long id, NoteDTO dto) {
         var note = getNote(id);
         PutMapper.INSTANCE.putNote(note, dto);
         noteRepository.save(note);
-        processEngineService.updateProcess(note.getErrand().getId());
+        processEngineService.scheduleUpdateProcess(note.getErrand().getId());
     }
 
     public NoteDTO findById(Long id) {
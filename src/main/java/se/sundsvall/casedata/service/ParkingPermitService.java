@@ -3,62 +3,82 @@ package se.sundsvall.casedata.service;
 import org.springframework.stereotype.Service;
 import org.zalando.problem.Problem;
 import org.zalando.problem.Status;
-import se.sundsvall.casedata.api.model.ErrandDTO;
+import se.sundsvall.casedata.api.model.DecisionDTO;
 import se.sundsvall.casedata.api.model.GetParkingPermitDTO;
-import se.sundsvall.casedata.integration.db.ErrandRepository;
-import se.sundsvall.casedata.integration.db.model.Errand;
-import se.sundsvall.casedata.integration.db.model.enums.DecisionType;
+import se.sundsvall.casedata.integration.db.DecisionRepository;
+import se.sundsvall.casedata.integration.db.ParkingPermitViewRepository;
+import se.sundsvall.casedata.integration.db.ParkingPermitViewUpdater;
+import se.sundsvall.casedata.integration.db.model.Decision;
+import se.sundsvall.casedata.integration.db.model.ParkingPermitView;
 import se.sundsvall.casedata.integration.db.model.enums.StakeholderRole;
 import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
 
-import java.util.ArrayList;
+import java.text.MessageFormat;
 import java.util.List;
-
-import static java.util.Objects.nonNull;
-import static se.sundsvall.casedata.service.util.Constants.PERMIT_NUMBER_EXTRA_PARAMETER_KEY;
-import static se.sundsvall.casedata.service.util.Constants.PERMIT_STATUS_EXTRA_PARAMETER_KEY;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 public class ParkingPermitService {
-    private final ErrandRepository errandRepository;
+    private static final String PARKING_PERMIT_WITH_PERMIT_NUMBER_X_WAS_NOT_FOUND = "Parking permit with permit number: {0} was not found";
+
+    private final ParkingPermitViewRepository parkingPermitViewRepository;
+    private final ParkingPermitViewUpdater parkingPermitViewUpdater;
+    private final DecisionRepository decisionRepository;
 
-    public ParkingPermitService(ErrandRepository errandRepository) {
-        this.errandRepository = errandRepository;
+    public ParkingPermitService(ParkingPermitViewRepository parkingPermitViewRepository, ParkingPermitViewUpdater parkingPermitViewUpdater,
+                                DecisionRepository decisionRepository) {
+        this.parkingPermitViewRepository = parkingPermitViewRepository;
+        this.parkingPermitViewUpdater = parkingPermitViewUpdater;
+        this.decisionRepository = decisionRepository;
     }
 
     public List<GetParkingPermitDTO> findAll(String personId) {
-        List<GetParkingPermitDTO> parkingPermitsDTOList = new ArrayList<>();
+        List<ParkingPermitView> parkingPermits = personId == null ? parkingPermitViewRepository.findAllByOrderByErrandId()
+                : parkingPermitViewRepository.findAllByStakeholder(personId, StakeholderRole.APPLICANT);
+
+        if (parkingPermits.isEmpty()) {
+            throw Problem.valueOf(Status.NOT_FOUND, "No parking permits found");
+        }
 
-        List<Errand> allErrands = personId == null ? errandRepository.findAll() : findAllErrandsWithApplicant(personId);
+        // The decisions of all parking permits are read with one statement
+        Map<Long, DecisionDTO> decisions = decisionRepository.findAllById(parkingPermits.stream()
+                        .map(ParkingPermitView::getDecisionId)
+                        .filter(Objects::nonNull)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Decision::getId, EntityDtoMapper.INSTANCE::decisionToDto));
 
-        List<ErrandDTO> allErrandsWithPrh = allErrands.stream()
-                .filter(errand -> errand.getExtraParameters().containsKey(PERMIT_NUMBER_EXTRA_PARAMETER_KEY))
-                .map(EntityDtoMapper.INSTANCE::errandToDto)
+        return parkingPermits.stream()
+                .map(parkingPermit -> toParkingPermitDTO(parkingPermit, decisions.get(parkingPermit.getDecisionId())))
                 .toList();
+    }
 
-        if (allErrandsWithPrh.isEmpty()) {
-            throw Problem.valueOf(Status.NOT_FOUND, "No parking permits found");
-        }
+    public GetParkingPermitDTO findByPermitNumber(String permitNumber) {
+        var parkingPermit = parkingPermitViewRepository.findFirstByPermitNumberOrderByErrandIdDesc(permitNumber)
+                .orElseThrow(() -> Problem.valueOf(Status.NOT_FOUND, MessageFormat.format(PARKING_PERMIT_WITH_PERMIT_NUMBER_X_WAS_NOT_FOUND, permitNumber)));
 
-        allErrandsWithPrh.forEach(errand -> parkingPermitsDTOList.add(GetParkingPermitDTO.builder()
-                .artefactPermitNumber(errand.getExtraParameters().get(PERMIT_NUMBER_EXTRA_PARAMETER_KEY))
-                .artefactPermitStatus(errand.getExtraParameters().get(PERMIT_STATUS_EXTRA_PARAMETER_KEY))
-                .errandId(errand.getId())
-                .errandDecision(errand.getDecisions().stream().filter(decisionDTO -> DecisionType.FINAL.equals(decisionDTO.getDecisionType())).findFirst().orElse(null))
-                .build()));
+        var decision = parkingPermit.getDecisionId() == null ? null : decisionRepository.findById(parkingPermit.getDecisionId())
+                .map(EntityDtoMapper.INSTANCE::decisionToDto)
+                .orElse(null);
 
-        return parkingPermitsDTOList;
+        return toParkingPermitDTO(parkingPermit, decision);
     }
 
     /**
-     * @param personId of the applicant
-     * @return all errands with stakeholder who has the role APPLICANT and matching personId
+     * Writes the parking permits of all errands again, see {@link ParkingPermitViewUpdater#rebuild()}.
      */
-    private List<Errand> findAllErrandsWithApplicant(String personId) {
-        return errandRepository.findAll().stream()
-                .filter(errand -> errand.getStakeholders().stream()
-                        .filter(stakeholder -> nonNull(stakeholder.getPersonId()))
-                        .anyMatch(stakeholder -> stakeholder.getPersonId().equals(personId) && stakeholder.getRoles().contains(StakeholderRole.APPLICANT)))
-                .toList();
+    public void rebuild() {
+        parkingPermitViewUpdater.rebuild();
+    }
+
+    private static GetParkingPermitDTO toParkingPermitDTO(ParkingPermitView parkingPermit, DecisionDTO decision) {
+        return GetParkingPermitDTO.builder()
+                .artefactPermitNumber(parkingPermit.getPermitNumber())
+                .artefactPermitStatus(parkingPermit.getPermitStatus())
+                .errandId(parkingPermit.getErrandId())
+                .errandDecision(decision)
+                .build();
     }
 }
@@ -0,0 +1,147 @@
+package se.sundsvall.casedata.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.ProcessEngineOutboxRepository;
+import se.sundsvall.casedata.integration.db.model.ProcessEngineOutboxEntry;
+import se.sundsvall.casedata.integration.db.model.enums.ProcessEngineCall;
+import se.sundsvall.casedata.integration.processengine.configuration.ProcessEngineOutboxProperties;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Delivers the calls in the ProcessEngine outbox in the background, so that the API does not have to wait for
+ * ProcessEngine. Pending update-process calls for the same errand are sent as one call, counted as coalesced (saved)
+ * versus delivered (sent). Failed calls are retried with exponential backoff.
+ * <p>
+ * The entries are claimed in a short transaction that leases them to this node. ProcessEngine is called outside of any
+ * transaction, and every entry is then removed or rescheduled in a transaction of its own, so a slow or failing call
+ * neither holds locks and connections nor affects the other entries in the batch.
+ */
+@Component
+public class ProcessEngineOutboxDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessEngineOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ProcessEngineOutboxRepository processEngineOutboxRepository;
+    private final ProcessEngineService processEngineService;
+    private final ErrandRepository errandRepository;
+    private final ProcessEngineOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter coalescedCounter;
+    private final Timer deliveryDelayTimer;
+
+    public ProcessEngineOutboxDispatcher(ProcessEngineOutboxRepository processEngineOutboxRepository, ProcessEngineService processEngineService,
+                                         ErrandRepository errandRepository, ProcessEngineOutboxProperties properties, PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry) {
+        this.processEngineOutboxRepository = processEngineOutboxRepository;
+        this.processEngineService = processEngineService;
+        this.errandRepository = errandRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.deliveredCounter = meterRegistry.counter("process.engine.outbox.delivered");
+        this.failedCounter = meterRegistry.counter("process.engine.outbox.failed");
+        this.coalescedCounter = meterRegistry.counter("process.engine.outbox.coalesced");
+        this.deliveryDelayTimer = meterRegistry.timer("process.engine.outbox.delivery.delay");
+        Gauge.builder("process.engine.outbox.pending", processEngineOutboxRepository, ProcessEngineOutboxRepository::count)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${integration.process-engine.outbox.fixed-delay:PT1S}")
+    public void dispatch() {
+        claim().forEach(this::deliver);
+    }
+
+    private List<ClaimedEntry> claim() {
+        return transactionTemplate.execute(status -> {
+            var now = OffsetDateTime.now();
+            return processEngineOutboxRepository.findDueForDelivery(now, properties.getBatchSize()).stream()
+                    .map(entry -> {
+                        // The lease keeps other nodes from picking up the entry while it is delivered
+                        entry.setNextAttemptAt(now.plus(properties.getLease()));
+                        return new ClaimedEntry(entry, findCoalescedEntries(entry));
+                    })
+                    .toList();
+        });
+    }
+
+    private void deliver(ClaimedEntry claimedEntry) {
+        var entry = claimedEntry.entry();
+        var coalescedEntries = claimedEntry.coalescedEntries();
+        try {
+            if (entry.getType() == ProcessEngineCall.START_PROCESS) {
+                var parkingPermitResponse = processEngineService.startProcess(entry.getErrandId());
+                transactionTemplate.executeWithoutResult(status -> {
+                    errandRepository.updateProcessId(entry.getErrandId(), parkingPermitResponse.getProcessId());
+                    delete(entry, coalescedEntries);
+                });
+            } else {
+                processEngineService.updateProcess(entry.getErrandId());
+                transactionTemplate.executeWithoutResult(status -> delete(entry, coalescedEntries));
+            }
+            deliveredCounter.increment();
+            coalescedCounter.increment(coalescedEntries.size());
+            if (entry.getCreated() != null) {
+                deliveryDelayTimer.record(Duration.between(entry.getCreated(), OffsetDateTime.now()));
+            }
+        } catch (RuntimeException e) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setNextAttemptAt(OffsetDateTime.now().plus(backoff(entry.getAttempts())));
+            entry.setLastError(truncate(e.getMessage()));
+            failedCounter.increment();
+            LOG.warn("{} for errand with id: {} failed, attempt: {}. Next attempt at: {}", entry.getType(), entry.getErrandId(), entry.getAttempts(), entry.getNextAttemptAt(), e);
+            reschedule(entry);
+        }
+    }
+
+    private void delete(ProcessEngineOutboxEntry entry, List<ProcessEngineOutboxEntry> coalescedEntries) {
+        processEngineOutboxRepository.delete(entry);
+        processEngineOutboxRepository.deleteAll(coalescedEntries);
+    }
+
+    private void reschedule(ProcessEngineOutboxEntry entry) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> processEngineOutboxRepository.save(entry));
+        } catch (RuntimeException e) {
+            // The entry is picked up again when the lease has expired
+            LOG.warn("Rescheduling {} for errand with id: {} failed", entry.getType(), entry.getErrandId(), e);
+        }
+    }
+
+    private List<ProcessEngineOutboxEntry> findCoalescedEntries(ProcessEngineOutboxEntry entry) {
+        if (entry.getType() == ProcessEngineCall.START_PROCESS) {
+            return List.of();
+        }
+        // ProcessEngine reads the current errand, so one call covers every change committed so far on the same errand
+        return processEngineOutboxRepository.findByErrandIdAndTypeAndIdGreaterThan(entry.getErrandId(), ProcessEngineCall.UPDATE_PROCESS, entry.getId());
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    Duration backoff(int attempts) {
+        // Capped before shifting to avoid overflow after many attempts
+        var backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private record ClaimedEntry(ProcessEngineOutboxEntry entry, List<ProcessEngineOutboxEntry> coalescedEntries) {
+    }
+}
@@ -7,7 +7,13 @@ import org.zalando.problem.AbstractThrowableProblem;
 import org.zalando.problem.Problem;
 import org.zalando.problem.Status;
 import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.casedata.integration.db.ProcessEngineOutboxRepository;
+import se.sundsvall.casedata.integration.db.model.ProcessEngineOutboxEntry;
+import se.sundsvall.casedata.integration.db.model.enums.ProcessEngineCall;
 import se.sundsvall.casedata.integration.processengine.ProcessEngineClient;
+import se.sundsvall.casedata.integration.processengine.configuration.ProcessEngineOutboxProperties;
+
+import java.time.OffsetDateTime;
 
 import static se.sundsvall.casedata.service.util.Constants.PROCESS_ENGINE_PROBLEM_DETAIL;
 
@@ -16,9 +22,13 @@ public class ProcessEngineService {
 
     public static final ThrowableProblem PROBLEM = Problem.valueOf(Status.SERVICE_UNAVAILABLE, PROCESS_ENGINE_PROBLEM_DETAIL);
     private final ProcessEngineClient processEngineClient;
+    private final ProcessEngineOutboxRepository processEngineOutboxRepository;
+    private final ProcessEngineOutboxProperties processEngineOutboxProperties;
 
-    public ProcessEngineService(ProcessEngineClient processEngineClient) {
+    public ProcessEngineService(ProcessEngineClient processEngineClient, ProcessEngineOutboxRepository processEngineOutboxRepository, ProcessEngineOutboxProperties processEngineOutboxProperties) {
         this.processEngineClient = processEngineClient;
+        this.processEngineOutboxRepository = processEngineOutboxRepository;
+        this.processEngineOutboxProperties = processEngineOutboxProperties;
     }
 
     public ParkingPermitResponse startProcess(Long errandId) {
@@ -37,6 +47,23 @@ public class ProcessEngineService {
         }
     }
 
+    /**
+     * Puts an update-process call in the outbox. It is delivered by {@link ProcessEngineOutboxDispatcher} after the
+     * surrounding transaction has been committed, and never if it is rolled back. Delivery waits for the coalesce window,
+     * so that a burst of changes on the same errand results in one call.
+     */
+    public void scheduleUpdateProcess(Long errandId) {
+        processEngineOutboxRepository.save(new ProcessEngineOutboxEntry(errandId, ProcessEngineCall.UPDATE_PROCESS, OffsetDateTime.now().plus(processEngineOutboxProperties.getCoalesceWindow())));
+    }
+
+    /**
+     * Puts a start-process call in the outbox. It is delivered by {@link ProcessEngineOutboxDispatcher} after the
+     * surrounding transaction has been committed, which also stores the returned process id on the errand.
+     */
+    public void scheduleStartProcess(Long errandId) {
+        processEngineOutboxRepository.save(new ProcessEngineOutboxEntry(errandId, ProcessEngineCall.START_PROCESS, OffsetDateTime.now()));
+    }
+
     private static CaseObject createCaseObject(Long errandId) {
         CaseObject caseObject = new CaseObject();
         caseObject.setCaseNumber(errandId.toString());
@@ -13,5 +13,7 @@ public final class Constants {
     public static final String PERMIT_STATUS_EXTRA_PARAMETER_KEY = "artefact.permit.status";
     public static final String AD_USER_HEADER_KEY = "sentbyuser";
     public static final String X_JWT_ASSERTION_HEADER_KEY = "x-jwt-assertion";
+    // Description of the 412 response of the operations that change an errand, see If-Match
+    public static final String ERRAND_PRECONDITION_FAILED_DESCRIPTION = "Precondition failed - The errand has been changed since it was read, see If-Match";
 
 }
@@ -0,0 +1,32 @@
+package se.sundsvall.casedata.service.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digest of attachment content, as lowercase hex. Attachments with the same digest share the stored content.
+ */
+public final class ContentDigest {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private ContentDigest() {}
+
+    public static String of(byte[] content) {
+        return toHex(newMessageDigest().digest(content));
+    }
+
+    public static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String toHex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,64 @@
+package se.sundsvall.casedata.service.util;
+
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Associations on an errand that can be chosen with the fields parameter. Associations that are not chosen are neither
+ * fetched from the database nor serialized.
+ */
+public enum ErrandAssociation {
+    STATUSES("statuses"),
+    STAKEHOLDERS("stakeholders"),
+    FACILITIES("facilities"),
+    ATTACHMENTS("attachments"),
+    DECISIONS("decisions"),
+    NOTES("notes"),
+    MESSAGE_IDS("messageIds"),
+    EXTRA_PARAMETERS("extraParameters");
+
+    // Description of the fields parameter. Annotation values must be constants, so the valid values are listed here and
+    // verified against the fields above by ErrandAssociationTest
+    public static final String FIELDS_DESCRIPTION = "Associations to include, for example fields=stakeholders,statuses. All associations are included if omitted. "
+            + "Valid values: statuses, stakeholders, facilities, attachments, decisions, notes, messageIds, extraParameters";
+
+    private final String field;
+
+    ErrandAssociation(String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return the associations matching the given field names, all associations if no field names are given
+     */
+    public static Set<ErrandAssociation> fromFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return EnumSet.allOf(ErrandAssociation.class);
+        }
+
+        var associations = EnumSet.noneOf(ErrandAssociation.class);
+        fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .forEach(field -> associations.add(fromField(field)));
+        return associations;
+    }
+
+    private static ErrandAssociation fromField(String field) {
+        return Arrays.stream(values())
+                .filter(association -> association.field.equalsIgnoreCase(field))
+                .findFirst()
+                .orElseThrow(() -> Problem.valueOf(Status.BAD_REQUEST, "Unknown field: " + field + ". Valid fields are: "
+                        + Arrays.stream(values()).map(ErrandAssociation::getField).collect(Collectors.joining(", "))));
+    }
+}
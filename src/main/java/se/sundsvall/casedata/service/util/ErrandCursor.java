@@ -0,0 +1,75 @@
+package se.sundsvall.casedata.service.util;
+
+import org.springframework.data.domain.Sort;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Opaque position in a keyset paged errand search. Holds the sort order together with the sort value and id of the
+ * last errand that was returned. Encoded as base64url so that clients can pass it back as is.
+ */
+public record ErrandCursor(Sort.Order order, Comparable<?> lastValue, Long lastId) {
+
+    private static final String DELIMITER = "|";
+    private static final String INVALID_CURSOR = "Invalid cursor";
+    private static final Sort.Order DEFAULT_ORDER = Sort.Order.asc("id");
+
+    // Only non-nullable attributes can be used as sort key
+    private static final Map<String, SortKey> SORT_KEYS = Map.of(
+            "id", new SortKey(Long::valueOf, Errand::getId),
+            "created", new SortKey(OffsetDateTime::parse, Errand::getCreated),
+            "updated", new SortKey(OffsetDateTime::parse, Errand::getUpdated),
+            "errandNumber", new SortKey(value -> value, Errand::getErrandNumber));
+
+    /**
+     * @return cursor positioned before the first errand, sorted by the first order in sort (id ascending if unsorted)
+     */
+    public static ErrandCursor first(Sort sort) {
+        var order = sort.stream().findFirst().orElse(DEFAULT_ORDER);
+        if (!SORT_KEYS.containsKey(order.getProperty())) {
+            throw Problem.valueOf(Status.BAD_REQUEST, "Cursor pagination can only be sorted on: " + String.join(", ", new TreeSet<>(SORT_KEYS.keySet())));
+        }
+        return new ErrandCursor(order, null, null);
+    }
+
+    public static ErrandCursor decode(String cursor) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + DELIMITER, 4);
+            var sortKey = SORT_KEYS.get(parts[0]);
+            if (isNull(sortKey) || parts.length != 4) {
+                throw Problem.valueOf(Status.BAD_REQUEST, INVALID_CURSOR);
+            }
+            return new ErrandCursor(new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]), sortKey.parser().apply(parts[3]), Long.valueOf(parts[2]));
+        } catch (ThrowableProblem e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw Problem.valueOf(Status.BAD_REQUEST, INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * @return cursor positioned after the given errand
+     */
+    public ErrandCursor next(Errand last) {
+        return new ErrandCursor(order, SORT_KEYS.get(order.getProperty()).extractor().apply(last), last.getId());
+    }
+
+    public String encode() {
+        var value = order.getProperty() + DELIMITER + order.getDirection() + DELIMITER + lastId + DELIMITER + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record SortKey(Function<String, Comparable<?>> parser, Function<Errand, Comparable<?>> extractor) {
+    }
+}
@@ -0,0 +1,67 @@
+package se.sundsvall.casedata.service.util;
+
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETag of an errand, derived from its version and the number of changes to its children. Used to return 304 on unchanged reads and 412 when a change is
+ * based on an old version of the errand. A representation with only some of the associations has its own ETag, e.g.
+ * "5-statuses.notes", which matches If-Match like the ETag of the whole errand with the same version.
+ */
+public final class ErrandETag {
+
+    private static final String ANY = "*";
+    private static final String QUOTE = "\"";
+    private static final String ASSOCIATIONS_PREFIX = "-";
+    private static final String ASSOCIATIONS_DELIMITER = ".";
+
+    private ErrandETag() {}
+
+    /**
+     * @return the version of the errand including changes to its children, which do not increment the errand version
+     */
+    public static int versionOf(Errand errand) {
+        var activity = errand.getActivity();
+        return errand.getVersion() + (activity == null ? 0 : activity.getChildChanges().intValue());
+    }
+
+    public static String of(int version) {
+        return QUOTE + version + QUOTE;
+    }
+
+    /**
+     * @return the ETag of the errand with only the given associations, the same as {@link #of(int)} when all associations
+     * are given
+     */
+    public static String of(int version, Set<ErrandAssociation> associations) {
+        if (associations.containsAll(EnumSet.allOf(ErrandAssociation.class))) {
+            return of(version);
+        }
+
+        // Ordered as declared in ErrandAssociation, so the same associations always give the same ETag
+        return QUOTE + version + ASSOCIATIONS_PREFIX + associations.stream()
+                .sorted()
+                .map(ErrandAssociation::getField)
+                .collect(Collectors.joining(ASSOCIATIONS_DELIMITER)) + QUOTE;
+    }
+
+    /**
+     * @return true if the If-Match header value is missing, is *, or contains an ETag of the version with any
+     * associations
+     */
+    public static boolean matches(String ifMatch, int version) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return true;
+        }
+
+        var eTag = of(version);
+        var eTagPrefix = QUOTE + version + ASSOCIATIONS_PREFIX;
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals(eTag) || (tag.startsWith(eTagPrefix) && tag.endsWith(QUOTE)));
+    }
+}
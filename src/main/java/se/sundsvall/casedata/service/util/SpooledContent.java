@@ -0,0 +1,59 @@
+package se.sundsvall.casedata.service.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+
+/**
+ * Attachment content written to a temporary file while its digest is calculated, so that large content is never held
+ * in memory as a whole. The file is deleted when closed.
+ */
+public final class SpooledContent implements Closeable {
+
+    private final Path file;
+    private final String digest;
+    private final long size;
+
+    private SpooledContent(Path file, String digest, long size) {
+        this.file = file;
+        this.digest = digest;
+        this.size = size;
+    }
+
+    public static SpooledContent of(InputStream inputStream) throws IOException {
+        var file = Files.createTempFile("attachment-", ".upload");
+        try {
+            var digestInputStream = new DigestInputStream(inputStream, ContentDigest.newMessageDigest());
+            var size = Files.copy(digestInputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            return new SpooledContent(file, ContentDigest.toHex(digestInputStream.getMessageDigest().digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public InputStream openInputStream() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package se.sundsvall.casedata.service.util.mappers;
+
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import se.sundsvall.casedata.integration.db.model.AttachmentContent;
+import se.sundsvall.casedata.service.util.ContentDigest;
+
+import java.util.Base64;
+
+/**
+ * Maps the base64 encoded file in the API to the binary content stored on the attachment. The content is never mapped
+ * back, it is read through /attachments/{id}/content. The mapped content is replaced by already stored content with the
+ * same digest when the attachment is saved.
+ */
+public class AttachmentFileMapper {
+
+    public AttachmentContent toContent(String base64) {
+        if (base64 == null) {
+            return null;
+        }
+
+        try {
+            var file = Base64.getMimeDecoder().decode(base64);
+            var content = new AttachmentContent();
+            content.setDigest(ContentDigest.of(file));
+            content.setFile(BlobProxy.generateProxy(file));
+            return content;
+        } catch (IllegalArgumentException e) {
+            throw Problem.valueOf(Status.BAD_REQUEST, "Attachment file is not valid base64");
+        }
+    }
+}
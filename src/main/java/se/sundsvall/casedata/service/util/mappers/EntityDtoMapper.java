@@ -1,6 +1,9 @@
 package se.sundsvall.casedata.service.util.mappers;
 
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.factory.Mappers;
 import se.sundsvall.casedata.api.model.AppealDTO;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
@@ -18,27 +21,88 @@ import se.sundsvall.casedata.integration.db.model.Facility;
 import se.sundsvall.casedata.integration.db.model.Note;
 import se.sundsvall.casedata.integration.db.model.Stakeholder;
 import se.sundsvall.casedata.integration.db.model.Status;
+import se.sundsvall.casedata.service.util.ErrandAssociation;
+import se.sundsvall.casedata.service.util.ErrandETag;
 
-@Mapper
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+@Mapper(uses = AttachmentFileMapper.class)
 public interface EntityDtoMapper {
     EntityDtoMapper INSTANCE = Mappers.getMapper(EntityDtoMapper.class);
 
     ErrandDTO errandToDto(Errand errand);
 
+    @Mapping(target = "statuses", ignore = true)
+    @Mapping(target = "stakeholders", ignore = true)
+    @Mapping(target = "facilities", ignore = true)
+    @Mapping(target = "attachments", ignore = true)
+    @Mapping(target = "decisions", ignore = true)
+    @Mapping(target = "notes", ignore = true)
+    @Mapping(target = "messageIds", ignore = true)
+    @Mapping(target = "extraParameters", ignore = true)
+    ErrandDTO errandToDtoWithoutAssociations(Errand errand);
+
+    /**
+     * Maps the errand with only the given associations. The other associations are set to null and are never read from
+     * the errand, so lazy associations that are not chosen are not loaded.
+     */
+    default ErrandDTO errandToDto(Errand errand, Set<ErrandAssociation> associations) {
+        if (errand == null) {
+            return null;
+        }
+
+        var errandDTO = errandToDtoWithoutAssociations(errand);
+        errandDTO.setStatuses(associations.contains(ErrandAssociation.STATUSES) ? mapList(errand.getStatuses(), this::statusToDto) : null);
+        errandDTO.setStakeholders(associations.contains(ErrandAssociation.STAKEHOLDERS) ? mapList(errand.getStakeholders(), this::stakeholderToDto) : null);
+        errandDTO.setFacilities(associations.contains(ErrandAssociation.FACILITIES) ? mapList(errand.getFacilities(), this::facilityToDto) : null);
+        errandDTO.setAttachments(associations.contains(ErrandAssociation.ATTACHMENTS) ? mapList(errand.getAttachments(), this::attachmentToDto) : null);
+        errandDTO.setDecisions(associations.contains(ErrandAssociation.DECISIONS) ? mapList(errand.getDecisions(), this::decisionToDto) : null);
+        errandDTO.setNotes(associations.contains(ErrandAssociation.NOTES) ? mapList(errand.getNotes(), this::noteToDto) : null);
+        errandDTO.setMessageIds(associations.contains(ErrandAssociation.MESSAGE_IDS) ? mapList(errand.getMessageIds(), Function.identity()) : null);
+        errandDTO.setExtraParameters(associations.contains(ErrandAssociation.EXTRA_PARAMETERS) && errand.getExtraParameters() != null ? new HashMap<>(errand.getExtraParameters()) : null);
+        return errandDTO;
+    }
+
+    /**
+     * Child changes are recorded in errand_activity instead of on the errand, they are included in the version and in
+     * the updated fields of the errand.
+     */
+    @AfterMapping
+    default void addChildActivity(Errand errand, @MappingTarget ErrandDTO errandDTO) {
+        errandDTO.setVersion(ErrandETag.versionOf(errand));
+        var activity = errand.getActivity();
+        if (activity != null && activity.getLastChildChange() != null && (errand.getUpdated() == null || activity.getLastChildChange().isAfter(errand.getUpdated()))) {
+            errandDTO.setUpdated(activity.getLastChildChange());
+            errandDTO.setUpdatedBy(activity.getLastChildChangeBy());
+            errandDTO.setUpdatedByClient(activity.getLastChildChangeByClient());
+        }
+    }
+
+    private static <S, T> List<T> mapList(List<S> source, Function<S, T> mapper) {
+        return source == null ? null : new ArrayList<>(source.stream().map(mapper).toList());
+    }
+
     Errand dtoToErrand(ErrandDTO errandDTO);
 
     Stakeholder dtoToStakeholder(StakeholderDTO stakeholderDTO);
 
     StakeholderDTO stakeholderToDto(Stakeholder stakeholder);
 
+    @Mapping(target = "content", source = "file")
     Attachment dtoToAttachment(AttachmentDTO attachmentDTO);
 
+    @Mapping(target = "file", ignore = true)
     AttachmentDTO attachmentToDto(Attachment attachment);
 
     Decision dtoToDecision(DecisionDTO decisionDTO);
     DecisionDTO decisionToDto(Decision decision);
 
     Status dtoToStatus(StatusDTO statusDTO);
+    StatusDTO statusToDto(Status status);
 
     NoteDTO noteToDto(Note note);
     Note dtoToNote(NoteDTO noteDTO);
@@ -46,4 +110,5 @@ public interface EntityDtoMapper {
     Appeal dtoToAppeal(AppealDTO appealDTO);
 
     Facility dtoToFacility(FacilityDTO facilityDTO);
+    FacilityDTO facilityToDto(Facility facility);
 }
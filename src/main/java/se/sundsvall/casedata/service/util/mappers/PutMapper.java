@@ -22,7 +22,7 @@ import java.util.Map;
 /**
  * Works like a PUT-operation.
  */
-@Mapper(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.SET_TO_NULL)
+@Mapper(uses = AttachmentFileMapper.class, nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.SET_TO_NULL)
 public interface PutMapper {
 
     PutMapper INSTANCE = Mappers.getMapper(PutMapper.class);
@@ -32,8 +32,14 @@ public interface PutMapper {
     @Mapping(target = "created", ignore = true)
     @Mapping(target = "updated", ignore = true)
     @Mapping(target = "version", ignore = true)
+    // The content is kept when the file is left out, it is replaced through /attachments/{id}/content
+    @Mapping(target = "content", source = "file", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void putAttachment(@MappingTarget Attachment oldAttachment, AttachmentDTO newAttachment);
 
+    // Used for the attachments on decisions and appeals
+    @Mapping(target = "content", source = "file")
+    Attachment toAttachment(AttachmentDTO attachmentDTO);
+
     @Mapping(target = "extraParameters", qualifiedByName = "extraParameterMapping")
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "created", ignore = true)
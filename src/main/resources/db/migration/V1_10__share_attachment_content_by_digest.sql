@@ -0,0 +1,31 @@
+-- Attachment content is stored once per SHA-256 digest and shared by the attachments referring to it
+alter table attachment_content
+    add column digest varchar(64),
+    add column reference_count integer not null default 0;
+
+update attachment_content
+set digest = sha2(file, 256);
+
+-- Empty content has the digest of no bytes
+update attachment_content
+set digest = sha2('', 256)
+where digest is null;
+
+-- Attachments with the same content refer to the first stored copy of it
+update attachment a
+    join attachment_content c on c.id = a.attachment_content_id
+    join (select digest, min(id) as id from attachment_content group by digest) first_content on first_content.digest = c.digest
+set a.attachment_content_id = first_content.id;
+
+delete from attachment_content
+where id not in (select attachment_content_id from attachment where attachment_content_id is not null);
+
+update attachment_content c
+set reference_count = (select count(*) from attachment a where a.attachment_content_id = c.id);
+
+alter table attachment_content
+    modify column digest varchar(64) not null,
+    alter column reference_count drop default;
+
+alter table attachment_content
+    add constraint UK_attachment_content_digest unique (digest);
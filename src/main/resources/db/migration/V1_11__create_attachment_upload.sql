@@ -0,0 +1,26 @@
+-- Attachments can be uploaded in parts, the parts are kept until the upload is committed or expires
+create table attachment_upload (
+    id bigint not null,
+    created datetime(6),
+    errand_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table attachment_upload_part (
+    id bigint not null,
+    file longblob,
+    part_number integer not null,
+    size bigint not null,
+    attachment_upload_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table attachment_upload_part
+    add constraint UK_attachment_upload_part_part_number unique (attachment_upload_id, part_number);
+
+alter table attachment_upload_part
+    add constraint FK_attachment_upload_part_attachment_upload_id foreign key (attachment_upload_id) references attachment_upload (id);
+
+create sequence attachment_upload_seq start with 1 increment by 50;
+
+create sequence attachment_upload_part_seq start with 1 increment by 50;
@@ -0,0 +1,25 @@
+-- The history of an attachment records the digest and size of its content instead of the content itself
+alter table attachment
+    add column content_digest varchar(64),
+    add column content_size bigint;
+
+update attachment a
+    join attachment_content c on c.id = a.attachment_content_id
+set a.content_digest = c.digest,
+    a.content_size   = length(c.file);
+
+-- Snapshots written while the content was kept on the attachment contain the whole file as base64. The file is replaced
+-- by its digest and size, and is removed from the changed properties.
+update jv_snapshot
+set state = json_remove(
+        json_set(state,
+                 '$.contentDigest', sha2(from_base64(json_value(state, '$.file')), 256),
+                 '$.contentSize', length(from_base64(json_value(state, '$.file')))),
+        '$.file')
+where managed_type = 'se.sundsvall.casedata.integration.db.model.Attachment'
+  and json_exists(state, '$.file');
+
+update jv_snapshot
+set changed_properties = json_remove(changed_properties, json_unquote(json_search(changed_properties, 'one', 'file')))
+where managed_type = 'se.sundsvall.casedata.integration.db.model.Attachment'
+  and json_search(changed_properties, 'one', 'file') is not null;
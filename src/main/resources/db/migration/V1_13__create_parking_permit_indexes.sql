@@ -0,0 +1,4 @@
+-- Parking permits are found by the permit number extra parameter and the person id of the applicant
+create index IDX_errand_extra_parameters_extra_parameter_key on errand_extra_parameters (extra_parameter_key);
+
+create index IDX_stakeholder_person_id on stakeholder (person_id);
@@ -0,0 +1,17 @@
+-- One row per errand with a parking permit number, kept up to date when errands and decisions change
+create table parking_permit_view (
+    errand_id bigint not null,
+    decision_id bigint,
+    permit_number varchar(255),
+    permit_status varchar(255),
+    primary key (errand_id)
+) engine=InnoDB;
+
+insert into parking_permit_view (errand_id, decision_id, permit_number, permit_status)
+select e.id,
+    (select min(d.id) from decision d where d.errand_id = e.id and d.decision_type = 'FINAL'),
+    n.extra_parameter_value,
+    s.extra_parameter_value
+from errand e
+join errand_extra_parameters n on n.errand_id = e.id and n.extra_parameter_key = 'artefact.permit.number'
+left join errand_extra_parameters s on s.errand_id = e.id and s.extra_parameter_key = 'artefact.permit.status';
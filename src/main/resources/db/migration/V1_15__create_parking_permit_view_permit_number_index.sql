@@ -0,0 +1,2 @@
+-- Parking permits are verified by permit number
+create index IDX_parking_permit_view_permit_number on parking_permit_view (permit_number);
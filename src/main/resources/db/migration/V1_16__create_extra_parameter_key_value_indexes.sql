@@ -0,0 +1,14 @@
+-- Extra parameters are searched by key and value, the key only index is covered by the new index on errands
+drop index IDX_errand_extra_parameters_extra_parameter_key on errand_extra_parameters;
+
+create index IDX_attachment_extra_parameters_key_value on attachment_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+create index IDX_decision_extra_parameters_key_value on decision_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+create index IDX_errand_extra_parameters_key_value on errand_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+create index IDX_facility_extra_parameters_key_value on facility_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+create index IDX_note_extra_parameters_key_value on note_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+create index IDX_stakeholder_extra_parameters_key_value on stakeholder_extra_parameters (extra_parameter_key, extra_parameter_value);
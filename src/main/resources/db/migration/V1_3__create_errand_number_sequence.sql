@@ -0,0 +1,15 @@
+create table errand_number_sequence (
+    abbreviation varchar(255) not null,
+    year integer not null,
+    last_number bigint not null,
+    primary key (abbreviation, year)
+) engine=InnoDB;
+
+-- Continue from the highest errand number (ABBREVIATION-YEAR-NUMBER) already handed out per abbreviation and year
+insert into errand_number_sequence (abbreviation, year, last_number)
+select substring_index(errand_number, '-', 1),
+       cast(substring_index(substring_index(errand_number, '-', -2), '-', 1) as unsigned),
+       max(cast(substring_index(errand_number, '-', -1) as unsigned))
+from errand
+where errand_number like '%-____-%'
+group by 1, 2;
@@ -0,0 +1,11 @@
+create table process_engine_outbox (
+    id bigint not null auto_increment,
+    attempts integer not null,
+    created datetime(6),
+    errand_id bigint not null,
+    last_error varchar(1000),
+    next_attempt_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index IDX_process_engine_outbox_errand_id on process_engine_outbox (errand_id);
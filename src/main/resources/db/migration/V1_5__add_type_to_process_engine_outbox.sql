@@ -0,0 +1,5 @@
+alter table process_engine_outbox
+    add column type varchar(255) not null default 'UPDATE_PROCESS';
+
+alter table process_engine_outbox
+    alter column type drop default;
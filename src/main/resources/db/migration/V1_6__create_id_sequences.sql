@@ -0,0 +1,37 @@
+-- One id sequence per table, handing out blocks of 50 ids, starting after the highest id in use.
+-- auto_increment is left on the id columns but is no longer used.
+
+set @create_sequence = concat('create sequence appeal_seq start with ', (select coalesce(max(id), 0) + 1 from appeal), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
+
+set @create_sequence = concat('create sequence attachment_seq start with ', (select coalesce(max(id), 0) + 1 from attachment), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
+
+set @create_sequence = concat('create sequence decision_seq start with ', (select coalesce(max(id), 0) + 1 from decision), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
+
+set @create_sequence = concat('create sequence errand_seq start with ', (select coalesce(max(id), 0) + 1 from errand), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
+
+set @create_sequence = concat('create sequence facility_seq start with ', (select coalesce(max(id), 0) + 1 from facility), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
+
+set @create_sequence = concat('create sequence note_seq start with ', (select coalesce(max(id), 0) + 1 from note), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
+
+set @create_sequence = concat('create sequence stakeholder_seq start with ', (select coalesce(max(id), 0) + 1 from stakeholder), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
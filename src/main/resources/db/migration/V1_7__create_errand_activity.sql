@@ -0,0 +1,8 @@
+create table errand_activity (
+    errand_id bigint not null,
+    child_changes bigint not null,
+    last_child_change datetime(6),
+    last_child_change_by varchar(255),
+    last_child_change_by_client varchar(255),
+    primary key (errand_id)
+) engine=InnoDB;
@@ -0,0 +1,23 @@
+-- The file was stored as base64 encoded text, it is decoded and stored as binary content.
+-- from_base64 returns null for text it cannot decode, e.g. with a data URI prefix, which the old column would then be
+-- dropped with. The migration fails before anything is changed if there is such a file, so that it can be fixed first.
+DELIMITER //
+begin not atomic
+    if exists(select 1 from attachment where file is not null and from_base64(file) is null) then
+        signal sqlstate '45000' set message_text = 'attachment.file contains text that is not base64 encoded';
+    end if;
+end//
+DELIMITER ;
+
+alter table attachment
+    add column file_content longblob;
+
+update attachment
+set file_content = from_base64(file)
+where file is not null;
+
+alter table attachment
+    drop column file;
+
+alter table attachment
+    rename column file_content to file;
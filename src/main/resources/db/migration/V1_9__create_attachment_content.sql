@@ -0,0 +1,32 @@
+-- The content of an attachment is moved to its own table, keeping the id of the attachment it belonged to
+create table attachment_content (
+    id bigint not null,
+    created datetime(6),
+    updated datetime(6),
+    version integer,
+    file longblob,
+    primary key (id)
+) engine=InnoDB;
+
+insert into attachment_content (id, created, updated, version, file)
+select id, created, updated, 0, file
+from attachment
+where file is not null;
+
+alter table attachment
+    add column attachment_content_id bigint;
+
+update attachment
+set attachment_content_id = id
+where file is not null;
+
+alter table attachment
+    drop column file;
+
+alter table attachment
+    add constraint FK_attachment_attachment_content_id foreign key (attachment_content_id) references attachment_content (id);
+
+set @create_sequence = concat('create sequence attachment_content_seq start with ', (select coalesce(max(id), 0) + 1 from attachment_content), ' increment by 50');
+prepare create_sequence_statement from @create_sequence;
+execute create_sequence_statement;
+deallocate prepare create_sequence_statement;
@@ -0,0 +1,48 @@
+package se.sundsvall.casedata.api.model;
+
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class AttachmentUploadDTOTest {
+
+    @BeforeAll
+    static void setup() {
+        registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+    }
+
+    @Test
+    void testBean() {
+        MatcherAssert.assertThat(AttachmentUploadDTO.class, allOf(
+                hasValidBeanConstructor(),
+                hasValidGettersAndSetters(),
+                hasValidBeanHashCode(),
+                hasValidBeanEquals(),
+                hasValidBeanToString()));
+    }
+
+    @Test
+    void testFields() {
+        AttachmentUploadDTO dto = AttachmentUploadDTO.builder()
+                .id(1L)
+                .errandId(2L)
+                .created(OffsetDateTime.now())
+                .parts(List.of(AttachmentUploadPartDTO.builder().partNumber(1).size(10).build()))
+                .build();
+
+        assertThat(dto).isNotNull().hasNoNullFieldsOrProperties();
+    }
+}
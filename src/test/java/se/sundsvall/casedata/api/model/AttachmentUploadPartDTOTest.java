@@ -0,0 +1,35 @@
+package se.sundsvall.casedata.api.model;
+
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class AttachmentUploadPartDTOTest {
+
+    @Test
+    void testBean() {
+        MatcherAssert.assertThat(AttachmentUploadPartDTO.class, allOf(
+                hasValidBeanConstructor(),
+                hasValidGettersAndSetters(),
+                hasValidBeanHashCode(),
+                hasValidBeanEquals(),
+                hasValidBeanToString()));
+    }
+
+    @Test
+    void testFields() {
+        AttachmentUploadPartDTO dto = AttachmentUploadPartDTO.builder()
+                .partNumber(1)
+                .size(10)
+                .build();
+
+        assertThat(dto).isNotNull().hasNoNullFieldsOrProperties();
+    }
+}
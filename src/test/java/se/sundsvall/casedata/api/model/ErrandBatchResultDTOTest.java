@@ -0,0 +1,48 @@
+package se.sundsvall.casedata.api.model;
+
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class ErrandBatchResultDTOTest {
+
+    @BeforeAll
+    static void setup() {
+        registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+    }
+
+    @Test
+    void testBean() {
+        MatcherAssert.assertThat(ErrandBatchResultDTO.class, allOf(
+                hasValidBeanConstructor(),
+                hasValidGettersAndSetters(),
+                hasValidBeanHashCode(),
+                hasValidBeanEquals(),
+                hasValidBeanToString()));
+    }
+
+    @Test
+    void testFields() {
+        ErrandBatchResultDTO dto = ErrandBatchResultDTO.builder()
+                .index(1)
+                .id(2L)
+                .errandNumber("PRH-2022-000001")
+                .status(201)
+                .detail("detail")
+                .build();
+
+        assertThat(dto).isNotNull().hasNoNullFieldsOrProperties();
+    }
+}
@@ -0,0 +1,47 @@
+package se.sundsvall.casedata.api.model;
+
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.casedata.TestUtil;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class ErrandCursorPageDTOTest {
+
+    @BeforeAll
+    static void setup() {
+        registerValueGenerator(() -> OffsetDateTime.now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+    }
+
+    @Test
+    void testBean() {
+        MatcherAssert.assertThat(ErrandCursorPageDTO.class, allOf(
+                hasValidBeanConstructor(),
+                hasValidGettersAndSetters(),
+                hasValidBeanHashCode(),
+                hasValidBeanEquals(),
+                hasValidBeanToString()));
+    }
+
+    @Test
+    void testFields() {
+        ErrandCursorPageDTO dto = ErrandCursorPageDTO.builder()
+                .content(List.of(TestUtil.createErrandDTO()))
+                .nextCursor("cursor")
+                .build();
+
+        assertThat(dto).isNotNull().hasNoNullFieldsOrProperties();
+    }
+}
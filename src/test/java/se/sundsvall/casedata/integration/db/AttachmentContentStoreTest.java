@@ -0,0 +1,192 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import se.sundsvall.casedata.integration.db.model.Attachment;
+import se.sundsvall.casedata.integration.db.model.AttachmentContent;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Blob;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentContentStoreTest {
+
+    private static final String DIGEST = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String ADD_REFERENCE_BY_DIGEST = "update attachment_content set reference_count = reference_count + 1 where digest = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+    @Mock
+    private EntityManager entityManagerMock;
+
+    @InjectMocks
+    private AttachmentContentStore attachmentContentStore;
+
+    @Test
+    void storeNewContent() {
+        var storedContent = new AttachmentContent();
+        doReturn(0).when(jdbcTemplateMock).update(ADD_REFERENCE_BY_DIGEST, DIGEST);
+        doReturn(1L).when(jdbcTemplateMock).queryForObject(startsWith("select next value"), eq(Long.class));
+        doReturn(2L).when(jdbcTemplateMock).queryForObject(anyString(), eq(Long.class), eq(DIGEST));
+        doReturn(storedContent).when(entityManagerMock).getReference(AttachmentContent.class, 2L);
+
+        var content = attachmentContentStore.store(DIGEST, () -> BlobProxy.generateProxy(new byte[] {1}));
+
+        assertThat(content).isSameAs(storedContent);
+        verify(jdbcTemplateMock).update(contains("on duplicate key update reference_count = reference_count + 1"), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storeAlreadyStoredContent() {
+        var storedContent = new AttachmentContent();
+        Supplier<Blob> fileMock = mock(Supplier.class);
+        doReturn(1).when(jdbcTemplateMock).update(ADD_REFERENCE_BY_DIGEST, DIGEST);
+        doReturn(1L).when(jdbcTemplateMock).queryForObject(anyString(), eq(Long.class), eq(DIGEST));
+        doReturn(storedContent).when(entityManagerMock).getReference(AttachmentContent.class, 1L);
+
+        var content = attachmentContentStore.store(DIGEST, fileMock);
+
+        assertThat(content).isSameAs(storedContent);
+        verify(jdbcTemplateMock, never()).update(anyString(), any(PreparedStatementSetter.class));
+        verify(fileMock, never()).get();
+    }
+
+    @Test
+    void storeContentStoredConcurrently() {
+        // Another transaction inserts the same content after the reference could not be added, so the insert adds the
+        // reference instead and the content stored by the other transaction is returned
+        var storedContent = new AttachmentContent();
+        doReturn(0).when(jdbcTemplateMock).update(ADD_REFERENCE_BY_DIGEST, DIGEST);
+        doReturn(51L).when(jdbcTemplateMock).queryForObject(startsWith("select next value"), eq(Long.class));
+        doReturn(1L).when(jdbcTemplateMock).queryForObject(anyString(), eq(Long.class), eq(DIGEST));
+        doReturn(storedContent).when(entityManagerMock).getReference(AttachmentContent.class, 1L);
+
+        var content = attachmentContentStore.store(DIGEST, () -> BlobProxy.generateProxy(new byte[] {1}));
+
+        assertThat(content).isSameAs(storedContent);
+        verify(entityManagerMock, never()).getReference(AttachmentContent.class, 51L);
+    }
+
+    @Test
+    void resolve() {
+        var storedContent = new AttachmentContent();
+        var content = new AttachmentContent();
+        content.setDigest(DIGEST);
+        content.setFile(BlobProxy.generateProxy(new byte[] {1, 2}));
+        var attachment = new Attachment();
+        attachment.setContent(content);
+        doReturn(1).when(jdbcTemplateMock).update(ADD_REFERENCE_BY_DIGEST, DIGEST);
+        doReturn(1L).when(jdbcTemplateMock).queryForObject(anyString(), eq(Long.class), eq(DIGEST));
+        doReturn(storedContent).when(entityManagerMock).getReference(AttachmentContent.class, 1L);
+
+        attachmentContentStore.resolve(attachment);
+
+        assertThat(attachment.getContent()).isSameAs(storedContent);
+        assertEquals(DIGEST, attachment.getContentDigest());
+        assertThat(attachment.getContentSize()).isEqualTo(2L);
+    }
+
+    @Test
+    void attach() {
+        var storedContent = new AttachmentContent();
+        var attachment = new Attachment();
+        doReturn(1).when(jdbcTemplateMock).update(ADD_REFERENCE_BY_DIGEST, DIGEST);
+        doReturn(1L).when(jdbcTemplateMock).queryForObject(anyString(), eq(Long.class), eq(DIGEST));
+        doReturn(storedContent).when(entityManagerMock).getReference(AttachmentContent.class, 1L);
+
+        attachmentContentStore.attach(attachment, DIGEST, 4, () -> BlobProxy.generateProxy(new byte[4]));
+
+        assertThat(attachment.getContent()).isSameAs(storedContent);
+        assertEquals(DIGEST, attachment.getContentDigest());
+        assertThat(attachment.getContentSize()).isEqualTo(4L);
+    }
+
+    @Test
+    void resolveStoredContent() {
+        var content = new AttachmentContent();
+        content.setId(1L);
+        var attachment = new Attachment();
+        attachment.setContent(content);
+
+        attachmentContentStore.resolve(attachment);
+        attachmentContentStore.resolve(new Attachment());
+
+        assertThat(attachment.getContent()).isSameAs(content);
+        verifyNoInteractions(jdbcTemplateMock, entityManagerMock);
+    }
+
+    @Test
+    void read() throws IOException {
+        doReturn(new byte[] {2, 3}).when(jdbcTemplateMock).queryForObject(anyString(), eq(byte[].class), eq(2L), eq(2L), eq(1L));
+        var outputStream = new ByteArrayOutputStream();
+
+        attachmentContentStore.read(1L, 1, 2, outputStream);
+
+        assertThat(outputStream.toByteArray()).containsExactly(2, 3);
+    }
+
+    @Test
+    void readInChunks() throws IOException {
+        long length = AttachmentContentStore.READ_CHUNK_SIZE + 1L;
+        doReturn(new byte[AttachmentContentStore.READ_CHUNK_SIZE]).when(jdbcTemplateMock)
+                .queryForObject(anyString(), eq(byte[].class), eq(1L), eq((long) AttachmentContentStore.READ_CHUNK_SIZE), eq(1L));
+        doReturn(new byte[] {1}).when(jdbcTemplateMock)
+                .queryForObject(anyString(), eq(byte[].class), eq(AttachmentContentStore.READ_CHUNK_SIZE + 1L), eq(1L), eq(1L));
+        var outputStream = new ByteArrayOutputStream();
+
+        attachmentContentStore.read(1L, 0, length, outputStream);
+
+        assertThat(outputStream.size()).isEqualTo(AttachmentContentStore.READ_CHUNK_SIZE + 1);
+    }
+
+    @Test
+    void readAfterEndOfContent() throws IOException {
+        doReturn(new byte[0]).when(jdbcTemplateMock).queryForObject(anyString(), eq(byte[].class), eq(5L), eq(2L), eq(1L));
+        var outputStream = new ByteArrayOutputStream();
+
+        attachmentContentStore.read(1L, 4, 2, outputStream);
+
+        assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    void release() {
+        var content = new AttachmentContent();
+        content.setId(1L);
+
+        attachmentContentStore.release(content);
+
+        verify(jdbcTemplateMock).update(anyString(), eq(-1), eq(1L));
+    }
+
+    @Test
+    void releaseContentNotStored() {
+        attachmentContentStore.release(null);
+        attachmentContentStore.release(new AttachmentContent());
+
+        verifyNoInteractions(jdbcTemplateMock);
+    }
+}
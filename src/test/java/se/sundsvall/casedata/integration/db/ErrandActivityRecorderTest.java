@@ -0,0 +1,88 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.casedata.api.filter.IncomingRequestFilter;
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ErrandActivityRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+    @Mock
+    private IncomingRequestFilter incomingRequestFilterMock;
+
+    @InjectMocks
+    private ErrandActivityRecorder errandActivityRecorder;
+
+    @AfterEach
+    void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getResourceMap().keySet().forEach(TransactionSynchronizationManager::unbindResource);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void childChanged() {
+        doReturn("user").when(incomingRequestFilterMock).getAdUser();
+        doReturn("client").when(incomingRequestFilterMock).getSubscriber();
+
+        errandActivityRecorder.childChanged(createErrand(1L));
+
+        verify(jdbcTemplateMock).update(anyString(), eq(1L), any(), eq("user"), eq("client"));
+    }
+
+    @Test
+    void childChangedWithoutErrand() {
+        errandActivityRecorder.childChanged(null);
+        errandActivityRecorder.childChanged(createErrand(null));
+
+        verifyNoInteractions(jdbcTemplateMock);
+    }
+
+    @Test
+    void childChangedOncePerErrandInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        errandActivityRecorder.childChanged(createErrand(1L));
+        errandActivityRecorder.childChanged(createErrand(1L));
+        errandActivityRecorder.childChanged(createErrand(2L));
+
+        verify(jdbcTemplateMock, times(1)).update(anyString(), eq(1L), any(), any(), any());
+        verify(jdbcTemplateMock, times(1)).update(anyString(), eq(2L), any(), any(), any());
+    }
+
+    @Test
+    void childChangedOnErrandCreatedInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        var errand = createErrand(null);
+
+        errandActivityRecorder.errandCreated(errand);
+        errand.setId(1L);
+        errandActivityRecorder.childChanged(errand);
+
+        verifyNoInteractions(jdbcTemplateMock);
+    }
+
+    private static Errand createErrand(Long id) {
+        var errand = new Errand();
+        errand.setId(id);
+        return errand;
+    }
+}
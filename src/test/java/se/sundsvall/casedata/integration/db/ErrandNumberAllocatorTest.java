@@ -0,0 +1,41 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.casedata.integration.db.model.enums.CaseType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(MockitoExtension.class)
+class ErrandNumberAllocatorTest {
+
+    @Mock
+    private ErrandNumberSequenceRepository errandNumberSequenceRepositoryMock;
+
+    @InjectMocks
+    private ErrandNumberAllocator errandNumberAllocator;
+
+    @Test
+    void next() {
+        int year = LocalDate.now().getYear();
+        doReturn(1L).when(errandNumberSequenceRepositoryMock).allocate("PRH", year, 1);
+
+        assertEquals("PRH-" + year + "-000001", errandNumberAllocator.next(CaseType.PARKING_PERMIT));
+    }
+
+    @Test
+    void allocate() {
+        int year = LocalDate.now().getYear();
+        doReturn(12L).when(errandNumberSequenceRepositoryMock).allocate("PRH", year, 3);
+
+        assertEquals(List.of("PRH-" + year + "-000010", "PRH-" + year + "-000011", "PRH-" + year + "-000012"),
+                errandNumberAllocator.allocate(CaseType.PARKING_PERMIT, 3));
+    }
+}
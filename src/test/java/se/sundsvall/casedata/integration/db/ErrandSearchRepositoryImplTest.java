@@ -0,0 +1,27 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ErrandSearchRepositoryImplTest {
+
+    @Test
+    void toBooleanQuery() {
+        assertEquals("Storgatan* 5*", ErrandSearchRepositoryImpl.toBooleanQuery("Storgatan 5"));
+        assertEquals("mar*", ErrandSearchRepositoryImpl.toBooleanQuery("  mar  "));
+    }
+
+    @Test
+    void toBooleanQueryWithOperators() {
+        assertEquals("Bergström* Anna*", ErrandSearchRepositoryImpl.toBooleanQuery("+Bergström -Anna"));
+        assertEquals("Parkering* vid* skola*", ErrandSearchRepositoryImpl.toBooleanQuery("\"Parkering vid\" (skola)~"));
+    }
+
+    @Test
+    void toBooleanQueryWithoutWords() {
+        assertEquals("", ErrandSearchRepositoryImpl.toBooleanQuery(null));
+        assertEquals("", ErrandSearchRepositoryImpl.toBooleanQuery(""));
+        assertEquals("", ErrandSearchRepositoryImpl.toBooleanQuery(" *"));
+    }
+}
@@ -0,0 +1,46 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import se.sundsvall.casedata.integration.db.model.Note;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ExtraParameterRepositoryTest {
+
+    @SuppressWarnings("unchecked")
+    private final ExtraParameterRepository<Note> repository = mock(ExtraParameterRepository.class, CALLS_REAL_METHODS);
+
+    @Test
+    void findAllByExtraParameters() {
+        var note = new Note();
+        doReturn(List.of(note)).when(repository).findAll(any(Specification.class));
+
+        var result = repository.findAllByExtraParameters(Map.of("disability.aid", "Rullstol"));
+
+        assertThat(result).containsExactly(note);
+        verify(repository).findAll(any(Specification.class));
+    }
+
+    @Test
+    void findAllByExtraParametersPaged() {
+        var page = new PageImpl<>(List.of(new Note()));
+        doReturn(page).when(repository).findAll(any(Specification.class), eq(PageRequest.of(0, 10)));
+
+        Page<Note> result = repository.findAllByExtraParameters(Map.of("disability.aid", "Rullstol"), PageRequest.of(0, 10));
+
+        assertThat(result).isSameAs(page);
+    }
+}
@@ -0,0 +1,86 @@
+package se.sundsvall.casedata.integration.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static se.sundsvall.casedata.service.util.Constants.PERMIT_NUMBER_EXTRA_PARAMETER_KEY;
+import static se.sundsvall.casedata.service.util.Constants.PERMIT_STATUS_EXTRA_PARAMETER_KEY;
+
+@ExtendWith(MockitoExtension.class)
+class ParkingPermitViewUpdaterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+    @Mock
+    private EntityManager entityManagerMock;
+
+    @InjectMocks
+    private ParkingPermitViewUpdater parkingPermitViewUpdater;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> argumentsCaptor;
+
+    @AfterEach
+    void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getResourceMap().keySet().forEach(TransactionSynchronizationManager::unbindResource);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void errandChangedOncePerErrandBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        var errand = new Errand();
+
+        parkingPermitViewUpdater.errandChanged(errand);
+        parkingPermitViewUpdater.errandChanged(errand);
+        parkingPermitViewUpdater.errandChanged(null);
+        verifyNoInteractions(jdbcTemplateMock);
+
+        // The id of a new errand is assigned when it is persisted
+        errand.setId(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+        verify(entityManagerMock).flush();
+        verify(jdbcTemplateMock).batchUpdate(startsWith("delete"), argumentsCaptor.capture());
+        assertThat(argumentsCaptor.getValue()).containsExactly(new Object[]{1L});
+        verify(jdbcTemplateMock).batchUpdate(startsWith("insert"), argumentsCaptor.capture());
+        assertThat(argumentsCaptor.getValue()).containsExactly(new Object[]{"FINAL", PERMIT_NUMBER_EXTRA_PARAMETER_KEY, PERMIT_STATUS_EXTRA_PARAMETER_KEY, 1L});
+    }
+
+    @Test
+    void errandChangedWithoutTransaction() {
+        var errand = new Errand();
+        errand.setId(1L);
+
+        parkingPermitViewUpdater.errandChanged(errand);
+
+        verifyNoInteractions(jdbcTemplateMock, entityManagerMock);
+    }
+
+    @Test
+    void rebuild() {
+        parkingPermitViewUpdater.rebuild();
+
+        verify(jdbcTemplateMock).update("delete from parking_permit_view");
+        verify(jdbcTemplateMock).update(startsWith("insert"), anyString(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,41 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import org.hamcrest.MatcherAssert;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Blob;
+import java.time.OffsetDateTime;
+import java.util.Random;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class AttachmentContentTest {
+
+    @BeforeAll
+    static void setup() {
+        registerValueGenerator(() -> now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+        registerValueGenerator(() -> BlobProxy.generateProxy(new byte[] {(byte) new Random().nextInt()}), Blob.class);
+    }
+
+    @Test
+    void testBean() {
+        MatcherAssert.assertThat(AttachmentContent.class, allOf(
+                hasValidBeanConstructor(),
+                hasValidGettersAndSetters()));
+    }
+
+    @Test
+    void toStringDoesNotContainFile() {
+        var content = new AttachmentContent();
+        content.setFile(BlobProxy.generateProxy(new byte[] {1}));
+
+        assertThat(content.toString()).doesNotContain("file");
+    }
+}
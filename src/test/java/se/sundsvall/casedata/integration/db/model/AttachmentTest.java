@@ -12,8 +12,6 @@ import java.util.List;
 import java.util.Random;
 
 import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
-import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEqualsExcluding;
-import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCodeExcluding;
 import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToStringExcluding;
 import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
 import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
@@ -32,9 +30,7 @@ class AttachmentTest {
         MatcherAssert.assertThat(Attachment.class, allOf(
                 hasValidBeanConstructor(),
                 hasValidGettersAndSetters(),
-                hasValidBeanHashCodeExcluding("errand"),
-                hasValidBeanEqualsExcluding("errand"),
-                hasValidBeanToStringExcluding("errand")));
+                hasValidBeanToStringExcluding("errand", "content")));
     }
 
     @Test
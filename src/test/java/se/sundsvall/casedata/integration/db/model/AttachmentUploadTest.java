@@ -0,0 +1,35 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static org.hamcrest.CoreMatchers.allOf;
+
+class AttachmentUploadTest {
+
+    @BeforeAll
+    static void setup() {
+        registerValueGenerator(() -> now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+    }
+
+    @Test
+    void testBean() {
+        MatcherAssert.assertThat(AttachmentUpload.class, allOf(
+                hasValidBeanConstructor(),
+                hasValidGettersAndSetters(),
+                hasValidBeanHashCode(),
+                hasValidBeanEquals(),
+                hasValidBeanToString()));
+    }
+}
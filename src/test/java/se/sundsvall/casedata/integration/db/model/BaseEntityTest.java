@@ -0,0 +1,57 @@
+package se.sundsvall.casedata.integration.db.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaseEntityTest {
+
+    @Test
+    void equalsById() {
+        var errand = createErrand(1L, "First");
+        var sameErrand = createErrand(1L, "Changed");
+
+        assertEquals(errand, sameErrand);
+        assertEquals(errand.hashCode(), sameErrand.hashCode());
+        assertNotEquals(errand, createErrand(2L, "First"));
+    }
+
+    @Test
+    void notPersistedOnlyEqualToItself() {
+        var errand = createErrand(null, "First");
+
+        assertEquals(errand, errand);
+        assertNotEquals(errand, createErrand(null, "First"));
+    }
+
+    @Test
+    void notEqualToOtherEntityWithSameId() {
+        var attachment = new Attachment();
+        attachment.setId(1L);
+
+        assertNotEquals(createErrand(1L, "First"), attachment);
+    }
+
+    @Test
+    void hashCodeUnchangedWhenPersisted() {
+        var errand = createErrand(null, "First");
+        var errands = new HashSet<Errand>();
+        errands.add(errand);
+
+        errand.setId(1L);
+        errand.setDescription("Changed");
+
+        assertTrue(errands.contains(errand));
+    }
+
+    private static Errand createErrand(Long id, String description) {
+        var errand = new Errand();
+        errand.setId(id);
+        errand.setDescription(description);
+        return errand;
+    }
+}
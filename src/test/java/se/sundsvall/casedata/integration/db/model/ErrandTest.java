@@ -35,6 +35,7 @@ class ErrandTest {
         object.setCreatedByClient(RandomStringUtils.random(10, true, false));
         object.setUpdatedByClient(RandomStringUtils.random(10, true, false));
         object.setErrandNumber("PRH-2022-000001");
+        object.setActivity(new ErrandActivity(object.getId(), 1L, OffsetDateTime.now(), RandomStringUtils.random(10, true, false), RandomStringUtils.random(10, true, false)));
 
         Assertions.assertThat(object).isNotNull().hasNoNullFieldsOrProperties();
     }
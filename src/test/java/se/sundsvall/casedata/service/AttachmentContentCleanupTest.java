@@ -0,0 +1,30 @@
+package se.sundsvall.casedata.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.casedata.integration.db.AttachmentContentRepository;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentContentCleanupTest {
+
+    @Mock
+    private AttachmentContentRepository attachmentContentRepositoryMock;
+
+    @InjectMocks
+    private AttachmentContentCleanup attachmentContentCleanup;
+
+    @Test
+    void deleteUnreferenced() {
+        doReturn(2).when(attachmentContentRepositoryMock).deleteUnreferenced();
+
+        attachmentContentCleanup.deleteUnreferenced();
+
+        verify(attachmentContentRepositoryMock).deleteUnreferenced();
+    }
+}
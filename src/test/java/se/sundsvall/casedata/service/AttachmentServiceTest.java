@@ -11,22 +11,36 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.zalando.problem.Status;
 import org.zalando.problem.ThrowableProblem;
 import se.sundsvall.casedata.api.model.AttachmentDTO;
+import se.sundsvall.casedata.integration.db.AttachmentContentStore;
 import se.sundsvall.casedata.integration.db.AttachmentRepository;
 import se.sundsvall.casedata.integration.db.model.Attachment;
+import se.sundsvall.casedata.integration.db.model.AttachmentContent;
 import se.sundsvall.casedata.integration.db.model.Errand;
 import se.sundsvall.casedata.integration.db.model.enums.AttachmentCategory;
+import se.sundsvall.casedata.service.util.ContentDigest;
 import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static se.sundsvall.casedata.TestUtil.OBJECT_MAPPER;
 import static se.sundsvall.casedata.TestUtil.createAttachmentDTO;
 import static se.sundsvall.casedata.TestUtil.createErrandDTO;
@@ -37,6 +51,8 @@ class AttachmentServiceTest {
 
     @Mock
     private AttachmentRepository attachmentRepository;
+    @Mock
+    private AttachmentContentStore attachmentContentStore;
 
     @InjectMocks
     private AttachmentService attachmentService;
@@ -68,7 +84,7 @@ class AttachmentServiceTest {
     }
 
     @Test
-    void putAttachment() throws JsonProcessingException {
+    void putAttachment() throws JsonProcessingException, SQLException {
         Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
         errand.setId(new Random().nextLong(1, 1000));
         Attachment attachment = EntityDtoMapper.INSTANCE.dtoToAttachment(createAttachmentDTO((AttachmentCategory) getRandomOfEnum(AttachmentCategory.class)));
@@ -88,7 +104,126 @@ class AttachmentServiceTest {
         assertThat(putDTO)
                 .usingRecursiveComparison()
                 .ignoringFieldsMatchingRegexes(
-                        "id", "version", "created", "updated")
+                        "id", "version", "created", "updated", "file")
                 .isEqualTo(EntityDtoMapper.INSTANCE.attachmentToDto(persistedAttachment));
+        assertEquals("test", new String(persistedAttachment.getContent().getFile().getBytes(1, 4), StandardCharsets.UTF_8));
+        verify(attachmentContentStore).resolve(persistedAttachment);
+        verify(attachmentContentStore).release(null);
+    }
+
+    @Test
+    void putAttachmentWithoutFile() {
+        Long id = new Random().nextLong();
+        var content = new AttachmentContent();
+        var attachment = new Attachment();
+        attachment.setContent(content);
+        doReturn(Optional.of(attachment)).when(attachmentRepository).findById(id);
+        AttachmentDTO putDTO = createAttachmentDTO((AttachmentCategory) getRandomOfEnum(AttachmentCategory.class));
+        putDTO.setFile(null);
+
+        attachmentService.put(id, putDTO);
+
+        assertThat(attachment.getContent()).isSameAs(content);
+        verifyNoInteractions(attachmentContentStore);
+    }
+
+    @Test
+    void readContent() throws IOException {
+        Long id = new Random().nextLong();
+        var content = new AttachmentContent();
+        content.setId(2L);
+        var attachment = new Attachment();
+        attachment.setContent(content);
+        attachment.setContentSize(4L);
+        doReturn(Optional.of(attachment)).when(attachmentRepository).findById(id);
+        var outputStream = new ByteArrayOutputStream();
+
+        attachmentService.readContent(id, outputStream);
+
+        verify(attachmentContentStore).read(2L, 0, 4, outputStream);
+    }
+
+    @Test
+    void readContentRange() throws IOException {
+        Long id = new Random().nextLong();
+        var content = new AttachmentContent();
+        content.setId(2L);
+        var attachment = new Attachment();
+        attachment.setContent(content);
+        attachment.setContentSize(4L);
+        doReturn(Optional.of(attachment)).when(attachmentRepository).findById(id);
+        var outputStream = new ByteArrayOutputStream();
+
+        attachmentService.readContent(id, 1, 2, outputStream);
+        attachmentService.readContent(id, 3, 2, outputStream);
+        attachmentService.readContent(id, 4, 2, outputStream);
+
+        verify(attachmentContentStore).read(2L, 1, 2, outputStream);
+        // Limited to the end of the content
+        verify(attachmentContentStore).read(2L, 3, 1, outputStream);
+        verifyNoMoreInteractions(attachmentContentStore);
+    }
+
+    @Test
+    void getContentLength() {
+        Long id = new Random().nextLong();
+        var attachment = new Attachment();
+        attachment.setContentSize(4L);
+        doReturn(Optional.of(attachment)).when(attachmentRepository).findById(id);
+
+        assertEquals(4, attachmentService.getContentLength(id));
+    }
+
+    @Test
+    void getContentLengthWithoutContent() {
+        Long id = new Random().nextLong();
+        doReturn(Optional.of(new Attachment())).when(attachmentRepository).findById(id);
+
+        assertEquals(0, attachmentService.getContentLength(id));
+    }
+
+    @Test
+    void readContentWithoutContent() {
+        Long id = new Random().nextLong();
+        doReturn(Optional.of(new Attachment())).when(attachmentRepository).findById(id);
+        var outputStream = new ByteArrayOutputStream();
+
+        attachmentService.readContent(id, outputStream);
+
+        assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    void putContent() throws SQLException {
+        Long id = new Random().nextLong();
+        var oldContent = new AttachmentContent();
+        var attachment = new Attachment();
+        attachment.setContent(oldContent);
+        doReturn(Optional.of(attachment)).when(attachmentRepository).findById(id);
+        doAnswer(invocation -> {
+            var content = new AttachmentContent();
+            content.setFile(invocation.<Supplier<Blob>>getArgument(3).get());
+            invocation.<Attachment>getArgument(0).setContent(content);
+            return null;
+        }).when(attachmentContentStore).attach(any(), eq(ContentDigest.of("test".getBytes(StandardCharsets.UTF_8))), eq(4L), any());
+
+        attachmentService.putContent(id, new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)), 4);
+
+        verify(attachmentRepository).saveAndFlush(attachmentArgumentCaptor.capture());
+        var persistedAttachment = attachmentArgumentCaptor.getValue();
+        assertEquals(4, persistedAttachment.getContent().getFile().length());
+        verify(attachmentContentStore).release(oldContent);
+    }
+
+    @Test
+    void putContentWithWrongLength() {
+        Long id = new Random().nextLong();
+        doReturn(Optional.of(new Attachment())).when(attachmentRepository).findById(id);
+        var inputStream = new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8));
+
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentService.putContent(id, inputStream, 5));
+
+        assertEquals(Status.BAD_REQUEST, problem.getStatus());
+        verifyNoInteractions(attachmentContentStore);
     }
 }
@@ -0,0 +1,45 @@
+package se.sundsvall.casedata.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.casedata.integration.db.AttachmentUploadPartRepository;
+import se.sundsvall.casedata.integration.db.AttachmentUploadRepository;
+
+import java.time.OffsetDateTime;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentUploadCleanupTest {
+
+    @Mock
+    private AttachmentUploadRepository attachmentUploadRepositoryMock;
+    @Mock
+    private AttachmentUploadPartRepository attachmentUploadPartRepositoryMock;
+    @Captor
+    private ArgumentCaptor<OffsetDateTime> beforeCaptor;
+
+    private AttachmentUploadCleanup attachmentUploadCleanup;
+
+    @BeforeEach
+    void setup() {
+        attachmentUploadCleanup = new AttachmentUploadCleanup(attachmentUploadRepositoryMock, attachmentUploadPartRepositoryMock, new AttachmentUploadProperties());
+    }
+
+    @Test
+    void deleteExpired() {
+        attachmentUploadCleanup.deleteExpired();
+
+        verify(attachmentUploadPartRepositoryMock).deleteByUploadCreatedBefore(beforeCaptor.capture());
+        verify(attachmentUploadRepositoryMock).deleteByCreatedBefore(beforeCaptor.getValue());
+        assertThat(beforeCaptor.getValue()).isCloseTo(OffsetDateTime.now().minusDays(1), within(1, MINUTES));
+    }
+}
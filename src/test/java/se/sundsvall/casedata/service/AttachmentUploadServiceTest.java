@@ -0,0 +1,255 @@
+package se.sundsvall.casedata.service;
+
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.zalando.problem.Status;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.casedata.api.model.AttachmentDTO;
+import se.sundsvall.casedata.integration.db.AttachmentContentStore;
+import se.sundsvall.casedata.integration.db.AttachmentUploadPartRepository;
+import se.sundsvall.casedata.integration.db.AttachmentUploadPartRepository.PartSummary;
+import se.sundsvall.casedata.integration.db.AttachmentUploadRepository;
+import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.model.Attachment;
+import se.sundsvall.casedata.integration.db.model.AttachmentContent;
+import se.sundsvall.casedata.integration.db.model.AttachmentUpload;
+import se.sundsvall.casedata.integration.db.model.AttachmentUploadPart;
+import se.sundsvall.casedata.integration.db.model.enums.AttachmentCategory;
+import se.sundsvall.casedata.service.util.ContentDigest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static se.sundsvall.casedata.TestUtil.createAttachmentDTO;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentUploadServiceTest {
+
+    private static final Long ERRAND_ID = 1L;
+    private static final Long UPLOAD_ID = 2L;
+
+    @Mock
+    private AttachmentUploadRepository attachmentUploadRepositoryMock;
+    @Mock
+    private AttachmentUploadPartRepository attachmentUploadPartRepositoryMock;
+    @Mock
+    private ErrandRepository errandRepositoryMock;
+    @Mock
+    private AttachmentContentStore attachmentContentStoreMock;
+    @Mock
+    private ErrandService errandServiceMock;
+    @Captor
+    private ArgumentCaptor<AttachmentUploadPart> partCaptor;
+    @Captor
+    private ArgumentCaptor<Attachment> attachmentCaptor;
+
+    private AttachmentUploadService attachmentUploadService;
+
+    @BeforeEach
+    void setup() {
+        attachmentUploadService = new AttachmentUploadService(attachmentUploadRepositoryMock, attachmentUploadPartRepositoryMock, errandRepositoryMock,
+                attachmentContentStoreMock, errandServiceMock, new AttachmentUploadProperties());
+    }
+
+    @Test
+    void createUpload() {
+        doReturn(true).when(errandRepositoryMock).existsById(ERRAND_ID);
+        doReturn(new AttachmentUpload(UPLOAD_ID, ERRAND_ID, null)).when(attachmentUploadRepositoryMock).save(any());
+
+        var result = attachmentUploadService.createUpload(ERRAND_ID);
+
+        assertEquals(UPLOAD_ID, result.getId());
+        assertEquals(ERRAND_ID, result.getErrandId());
+        assertThat(result.getParts()).isEmpty();
+    }
+
+    @Test
+    void createUploadErrandNotFound() {
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentUploadService.createUpload(ERRAND_ID));
+
+        assertEquals(Status.NOT_FOUND, problem.getStatus());
+        verifyNoInteractions(attachmentUploadRepositoryMock);
+    }
+
+    @Test
+    void findUpload() {
+        mockUpload();
+        doReturn(List.of(part(1, 10), part(3, 5))).when(attachmentUploadPartRepositoryMock).findByUploadIdOrderByPartNumber(UPLOAD_ID);
+
+        var result = attachmentUploadService.findUpload(ERRAND_ID, UPLOAD_ID);
+
+        assertThat(result.getParts()).extracting("partNumber", "size")
+                .containsExactly(tuple(1, 10L), tuple(3, 5L));
+    }
+
+    @Test
+    void findUploadOnOtherErrand() {
+        doReturn(Optional.empty()).when(attachmentUploadRepositoryMock).findByIdAndErrandId(UPLOAD_ID, ERRAND_ID);
+
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentUploadService.findUpload(ERRAND_ID, UPLOAD_ID));
+
+        assertEquals(Status.NOT_FOUND, problem.getStatus());
+    }
+
+    @Test
+    void putPart() throws SQLException {
+        var upload = mockLockedUpload();
+
+        attachmentUploadService.putPart(ERRAND_ID, UPLOAD_ID, 2, new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)), 4);
+
+        verify(attachmentUploadPartRepositoryMock).deleteByUploadIdAndPartNumber(UPLOAD_ID, 2);
+        verify(attachmentUploadPartRepositoryMock).saveAndFlush(partCaptor.capture());
+        var part = partCaptor.getValue();
+        assertThat(part.getUpload()).isSameAs(upload);
+        assertEquals(2, part.getPartNumber());
+        assertEquals(4, part.getSize());
+        assertEquals(4, part.getFile().length());
+    }
+
+    @Test
+    void putPartShorterThanContentLength() {
+        var inputStream = new ByteArrayInputStream("te".getBytes(StandardCharsets.UTF_8));
+
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentUploadService.putPart(ERRAND_ID, UPLOAD_ID, 1, inputStream, 4));
+
+        assertEquals(Status.BAD_REQUEST, problem.getStatus());
+        verifyNoInteractions(attachmentUploadRepositoryMock, attachmentUploadPartRepositoryMock);
+    }
+
+    @Test
+    void putPartTooLarge() {
+        var inputStream = new ByteArrayInputStream(new byte[0]);
+
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentUploadService.putPart(ERRAND_ID, UPLOAD_ID, 1, inputStream, 10 * 1024 * 1024 + 1));
+
+        assertEquals(Status.REQUEST_ENTITY_TOO_LARGE, problem.getStatus());
+        verifyNoInteractions(attachmentUploadPartRepositoryMock);
+    }
+
+    @Test
+    void commit() throws SQLException {
+        var upload = mockLockedUpload();
+        doReturn(List.of(part(1, 2), part(2, 2))).when(attachmentUploadPartRepositoryMock).findByUploadIdOrderByPartNumber(UPLOAD_ID);
+        doReturn(blob("te")).when(attachmentUploadPartRepositoryMock).findFile(UPLOAD_ID, 1);
+        doReturn(blob("st")).when(attachmentUploadPartRepositoryMock).findFile(UPLOAD_ID, 2);
+        doAnswer(invocation -> {
+            var content = new AttachmentContent();
+            content.setFile(invocation.<Supplier<Blob>>getArgument(3).get());
+            invocation.<Attachment>getArgument(0).setContent(content);
+            return null;
+        }).when(attachmentContentStoreMock).attach(any(), eq(ContentDigest.of("test".getBytes(StandardCharsets.UTF_8))), eq(4L), any());
+        doAnswer(invocation -> invocation.getArgument(1)).when(errandServiceMock).addAttachment(eq(ERRAND_ID), any(), eq("\"1\""));
+        var attachmentDTO = createAttachmentDTO(AttachmentCategory.ARIT);
+        attachmentDTO.setFile(null);
+
+        attachmentUploadService.commit(ERRAND_ID, UPLOAD_ID, attachmentDTO, "\"1\"");
+
+        verify(errandServiceMock).addAttachment(eq(ERRAND_ID), attachmentCaptor.capture(), eq("\"1\""));
+        var attachment = attachmentCaptor.getValue();
+        assertEquals(attachmentDTO.getName(), attachment.getName());
+        assertEquals(4, attachment.getContent().getFile().length());
+        verify(attachmentUploadPartRepositoryMock).deleteByUploadId(UPLOAD_ID);
+        verify(attachmentUploadRepositoryMock).delete(upload);
+        verify(attachmentUploadRepositoryMock).flush();
+    }
+
+    @Test
+    void commitWithMissingPart() {
+        mockLockedUpload();
+        doReturn(List.of(part(1, 2), part(3, 2))).when(attachmentUploadPartRepositoryMock).findByUploadIdOrderByPartNumber(UPLOAD_ID);
+        var attachmentDTO = createAttachmentDTO(AttachmentCategory.ARIT);
+        attachmentDTO.setFile(null);
+
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentUploadService.commit(ERRAND_ID, UPLOAD_ID, attachmentDTO, null));
+
+        assertEquals(Status.CONFLICT, problem.getStatus());
+        assertThat(problem.getDetail()).contains("Part 2 is missing");
+        verifyNoInteractions(errandServiceMock, attachmentContentStoreMock);
+    }
+
+    @Test
+    void commitAlreadyCommitted() {
+        // A concurrent commit of the same upload has deleted it while this commit waited for the lock
+        doReturn(Optional.empty()).when(attachmentUploadRepositoryMock).findForUpdateByIdAndErrandId(UPLOAD_ID, ERRAND_ID);
+        var attachmentDTO = createAttachmentDTO(AttachmentCategory.ARIT);
+        attachmentDTO.setFile(null);
+
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentUploadService.commit(ERRAND_ID, UPLOAD_ID, attachmentDTO, null));
+
+        assertEquals(Status.NOT_FOUND, problem.getStatus());
+        verify(attachmentUploadRepositoryMock, never()).findByIdAndErrandId(any(), any());
+        verifyNoInteractions(attachmentUploadPartRepositoryMock, errandServiceMock, attachmentContentStoreMock);
+    }
+
+    @Test
+    void commitWithFile() {
+        var attachmentDTO = createAttachmentDTO(AttachmentCategory.ARIT);
+
+        var problem = assertThrows(ThrowableProblem.class, () -> attachmentUploadService.commit(ERRAND_ID, UPLOAD_ID, attachmentDTO, null));
+
+        assertEquals(Status.BAD_REQUEST, problem.getStatus());
+        verify(errandServiceMock, never()).addAttachment(any(), any(), any());
+    }
+
+    @Test
+    void deleteUpload() {
+        var upload = mockLockedUpload();
+
+        attachmentUploadService.deleteUpload(ERRAND_ID, UPLOAD_ID);
+
+        verify(attachmentUploadPartRepositoryMock).deleteByUploadId(UPLOAD_ID);
+        verify(attachmentUploadRepositoryMock).delete(upload);
+    }
+
+    private AttachmentUpload mockUpload() {
+        var upload = new AttachmentUpload(UPLOAD_ID, ERRAND_ID, null);
+        doReturn(Optional.of(upload)).when(attachmentUploadRepositoryMock).findByIdAndErrandId(UPLOAD_ID, ERRAND_ID);
+        return upload;
+    }
+
+    private AttachmentUpload mockLockedUpload() {
+        var upload = new AttachmentUpload(UPLOAD_ID, ERRAND_ID, null);
+        doReturn(Optional.of(upload)).when(attachmentUploadRepositoryMock).findForUpdateByIdAndErrandId(UPLOAD_ID, ERRAND_ID);
+        return upload;
+    }
+
+    private static Blob blob(String content) {
+        return BlobProxy.generateProxy(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PartSummary part(int partNumber, long size) {
+        return new PartSummary() {
+            @Override
+            public int getPartNumber() {
+                return partNumber;
+            }
+
+            @Override
+            public long getSize() {
+                return size;
+            }
+        };
+    }
+}
@@ -83,8 +83,9 @@ class DecisionServiceTest {
         assertEquals(put.getDecidedAt(), persistedDecision.getDecidedAt());
         assertEquals(put.getValidFrom(), persistedDecision.getValidFrom());
         assertEquals(put.getValidTo(), persistedDecision.getValidTo());
-        assertEquals(put.getAppeal(), persistedDecision.getAppeal());
-        assertEquals(put.getAttachments(), persistedDecision.getAttachments());
+        // Entities are equal by id, the new appeal and attachments are compared by content
+        assertEquals(EntityDtoMapper.INSTANCE.decisionToDto(put).getAppeal(), EntityDtoMapper.INSTANCE.decisionToDto(persistedDecision).getAppeal());
+        assertEquals(EntityDtoMapper.INSTANCE.decisionToDto(put).getAttachments(), EntityDtoMapper.INSTANCE.decisionToDto(persistedDecision).getAttachments());
         assertEquals(put.getExtraParameters(), persistedDecision.getExtraParameters());
     }
 
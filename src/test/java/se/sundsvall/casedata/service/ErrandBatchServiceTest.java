@@ -0,0 +1,134 @@
+package se.sundsvall.casedata.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import se.sundsvall.casedata.api.model.ErrandDTO;
+import se.sundsvall.casedata.integration.db.ErrandNumberAllocator;
+import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.model.Errand;
+import se.sundsvall.casedata.integration.db.model.enums.CaseType;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static se.sundsvall.casedata.TestUtil.createErrandDTO;
+
+@ExtendWith(MockitoExtension.class)
+class ErrandBatchServiceTest {
+
+    @Mock
+    private ErrandRepository errandRepositoryMock;
+
+    @Mock
+    private ErrandNumberAllocator errandNumberAllocatorMock;
+
+    @Mock
+    private ProcessEngineService processEngineServiceMock;
+
+    @Mock
+    private TransactionTemplate transactionTemplateMock;
+
+    @Mock
+    private EntityManager entityManagerMock;
+
+    private ErrandBatchService errandBatchService;
+
+    @BeforeEach
+    void setup() {
+        errandBatchService = new ErrandBatchService(errandRepositoryMock, errandNumberAllocatorMock, processEngineServiceMock,
+                transactionTemplateMock, entityManagerMock, Validation.buildDefaultValidatorFactory().getValidator());
+
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplateMock).execute(any());
+    }
+
+    @Test
+    void saveErrandsAndStartProcesses() {
+        var invalidErrandDTO = createErrandDTOWithCaseType(CaseType.PARKING_PERMIT);
+        invalidErrandDTO.setCaseType(null);
+        mockSaveAll();
+        doReturn(List.of("PRH-2022-000001", "PRH-2022-000002")).when(errandNumberAllocatorMock).allocate(CaseType.PARKING_PERMIT, 2);
+
+        var results = errandBatchService.saveErrandsAndStartProcesses(List.of(createErrandDTOWithCaseType(CaseType.PARKING_PERMIT), invalidErrandDTO, createErrandDTOWithCaseType(CaseType.PARKING_PERMIT)));
+
+        assertThat(results).hasSize(3);
+        assertEquals(0, results.get(0).getIndex());
+        assertEquals(Status.CREATED.getStatusCode(), results.get(0).getStatus());
+        assertEquals("PRH-2022-000001", results.get(0).getErrandNumber());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(Status.BAD_REQUEST.getStatusCode(), results.get(1).getStatus());
+        assertEquals("caseType: must not be null", results.get(1).getDetail());
+        assertNull(results.get(1).getId());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals(Status.CREATED.getStatusCode(), results.get(2).getStatus());
+        assertEquals("PRH-2022-000002", results.get(2).getErrandNumber());
+
+        verify(errandRepositoryMock, times(1)).saveAll(anyList());
+        verify(processEngineServiceMock, times(2)).scheduleStartProcess(any());
+        verify(entityManagerMock).flush();
+        verify(entityManagerMock).clear();
+    }
+
+    @Test
+    void saveErrandsAndStartProcessesWithFailingErrand() {
+        var failingErrandDTO = createErrandDTOWithCaseType(CaseType.PARKING_PERMIT);
+        failingErrandDTO.setDescription("fail");
+        doReturn(List.of("PRH-2022-000001", "PRH-2022-000002")).when(errandNumberAllocatorMock).allocate(CaseType.PARKING_PERMIT, 2);
+        doReturn(List.of("PRH-2022-000003")).when(errandNumberAllocatorMock).allocate(CaseType.PARKING_PERMIT, 1);
+        doAnswer(invocation -> {
+            List<Errand> errands = invocation.getArgument(0);
+            if (errands.stream().anyMatch(errand -> "fail".equals(errand.getDescription()))) {
+                throw Problem.valueOf(Status.CONFLICT, "Conflict");
+            }
+            errands.forEach(errand -> errand.setId(1L));
+            return errands;
+        }).when(errandRepositoryMock).saveAll(anyList());
+
+        var results = errandBatchService.saveErrandsAndStartProcesses(List.of(createErrandDTOWithCaseType(CaseType.PARKING_PERMIT), failingErrandDTO));
+
+        assertEquals(Status.CREATED.getStatusCode(), results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(Status.CONFLICT.getStatusCode(), results.get(1).getStatus());
+        assertEquals("Conflict", results.get(1).getDetail());
+
+        // The whole chunk first, then each errand on its own
+        verify(errandRepositoryMock, times(3)).saveAll(anyList());
+        verify(processEngineServiceMock, times(1)).scheduleStartProcess(1L);
+        verify(errandNumberAllocatorMock, times(3)).allocate(any(), anyInt());
+    }
+
+    private void mockSaveAll() {
+        doAnswer(invocation -> {
+            List<Errand> errands = invocation.getArgument(0);
+            long id = 1;
+            for (var errand : errands) {
+                errand.setId(id++);
+            }
+            return errands;
+        }).when(errandRepositoryMock).saveAll(anyList());
+    }
+
+    private static ErrandDTO createErrandDTOWithCaseType(CaseType caseType) {
+        var errandDTO = createErrandDTO();
+        errandDTO.setCaseType(caseType);
+        return errandDTO;
+    }
+}
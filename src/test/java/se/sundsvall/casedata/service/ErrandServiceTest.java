@@ -12,9 +12,11 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.zalando.problem.Status;
 import org.zalando.problem.ThrowableProblem;
@@ -24,30 +26,43 @@ import se.sundsvall.casedata.api.model.ErrandDTO;
 import se.sundsvall.casedata.api.model.NoteDTO;
 import se.sundsvall.casedata.api.model.PatchErrandDTO;
 import se.sundsvall.casedata.api.model.StakeholderDTO;
+import se.sundsvall.casedata.integration.db.AttachmentRepository;
+import se.sundsvall.casedata.integration.db.DecisionRepository;
 import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.NoteRepository;
+import se.sundsvall.casedata.integration.db.StakeholderRepository;
 import se.sundsvall.casedata.integration.db.model.Attachment;
 import se.sundsvall.casedata.integration.db.model.Decision;
 import se.sundsvall.casedata.integration.db.model.Errand;
 import se.sundsvall.casedata.integration.db.model.Note;
 import se.sundsvall.casedata.integration.db.model.Stakeholder;
 import se.sundsvall.casedata.integration.db.model.enums.AttachmentCategory;
+import se.sundsvall.casedata.service.util.ErrandAssociation;
+import se.sundsvall.casedata.service.util.ErrandCursor;
 import se.sundsvall.casedata.service.util.mappers.EntityDtoMapper;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static se.sundsvall.casedata.TestUtil.OBJECT_MAPPER;
@@ -67,6 +82,18 @@ class ErrandServiceTest {
     @Mock
     private ErrandRepository errandRepositoryMock;
 
+    @Mock
+    private AttachmentRepository attachmentRepositoryMock;
+
+    @Mock
+    private DecisionRepository decisionRepositoryMock;
+
+    @Mock
+    private NoteRepository noteRepositoryMock;
+
+    @Mock
+    private StakeholderRepository stakeholderRepositoryMock;
+
     @Mock
     private ProcessEngineService processEngineServiceMock;
 
@@ -74,7 +101,7 @@ class ErrandServiceTest {
     ErrandService errandService;
 
     @Captor
-    private ArgumentCaptor<List<Long>> idListCapture;
+    private ArgumentCaptor<Pageable> pageableCaptor;
 
     @Captor
     private ArgumentCaptor<Errand> errandCaptor;
@@ -100,10 +127,27 @@ class ErrandServiceTest {
     void findById() {
         Errand errand = mockErrandFindById();
 
-        errandService.findById(errand.getId());
+        errandService.findById(errand.getId(), EnumSet.allOf(ErrandAssociation.class));
         verify(errandRepositoryMock, times(1)).findById(errand.getId());
     }
 
+    @Test
+    void findByIdWithAssociations() {
+        Errand errand = mockErrandFindById();
+
+        var result = errandService.findById(errand.getId(), EnumSet.of(ErrandAssociation.STAKEHOLDERS));
+
+        assertEquals(errand.getStakeholders().size(), result.getStakeholders().size());
+        assertNull(result.getStatuses());
+        assertNull(result.getFacilities());
+        assertNull(result.getAttachments());
+        assertNull(result.getDecisions());
+        assertNull(result.getNotes());
+        assertNull(result.getMessageIds());
+        assertNull(result.getExtraParameters());
+        assertEquals(errand.getErrandNumber(), result.getErrandNumber());
+    }
+
     @Test
     void findByIdNotFound() {
         ErrandDTO errandDTO = createErrandDTO();
@@ -112,7 +156,7 @@ class ErrandServiceTest {
         doReturn(Optional.empty()).when(errandRepositoryMock).findById(any());
 
         Long id = errand.getId();
-        ThrowableProblem problem = Assertions.assertThrows(ThrowableProblem.class, () -> errandService.findById(id));
+        ThrowableProblem problem = Assertions.assertThrows(ThrowableProblem.class, () -> errandService.findById(id, EnumSet.allOf(ErrandAssociation.class)));
 
         assertEquals(Status.NOT_FOUND, problem.getStatus());
         verify(errandRepositoryMock, times(1)).findById(errand.getId());
@@ -131,36 +175,56 @@ class ErrandServiceTest {
         patchedErrand.getExtraParameters().putAll(patchDTO.getExtraParameters());
         doReturn(patchedErrand).when(errandRepositoryMock).save(patchedErrand);
 
-        errandService.patchErrand(errand.getId(), patchDTO);
+        errandService.patchErrand(errand.getId(), patchDTO, null);
 
         verify(errandRepositoryMock, times(1)).save(patchedErrand);
     }
 
     @Test
-    void patchErrandWithStakeholder() throws JsonProcessingException {
-        Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
-        errand.setId(new Random().nextLong(1, 1000));
-        Stakeholder stakeholder_1 = new Stakeholder();
-        stakeholder_1.setId(1L);
-        Stakeholder stakeholder_2 = new Stakeholder();
-        stakeholder_2.setId(2L);
-        errand.setStakeholders(List.of(stakeholder_1, stakeholder_2));
-        doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(any());
+    void patchErrandWithMatchingIfMatch() {
+        Errand errand = mockErrandFindForUpdateById();
+        errand.setVersion(3);
+        PatchErrandDTO patchDTO = new PatchErrandDTO();
+        patchDTO.setExternalCaseId(UUID.randomUUID().toString());
 
-        StakeholderDTO patchStakeholderDTO = createStakeholderDTO(getRandomStakeholderType(), List.of(getRandomStakeholderRole()));
+        errandService.patchErrand(errand.getId(), patchDTO, "\"3\"");
 
-        Errand patchedErrandResult = OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(errand), Errand.class);
-        Stakeholder stakeholderResult = EntityDtoMapper.INSTANCE.dtoToStakeholder(patchStakeholderDTO);
-        stakeholderResult.setId(3L);
-        patchedErrandResult.getStakeholders().add(stakeholderResult);
-        doReturn(patchedErrandResult).when(errandRepositoryMock).save(any());
+        verify(errandRepositoryMock).findForUpdateById(errand.getId());
+        verify(errandRepositoryMock, never()).findById(any());
+        verify(errandRepositoryMock, times(1)).save(errand);
+    }
 
-        Stakeholder result = errandService.patchErrand(errand.getId(), patchStakeholderDTO);
-        assertEquals(3L, result.getId());
+    @Test
+    void patchErrandWithStaleIfMatch() {
+        Errand errand = mockErrandFindForUpdateById();
+        errand.setVersion(3);
+        var id = errand.getId();
+        var patchDTO = new PatchErrandDTO();
 
-        verify(errandRepositoryMock, times(1)).save(errandCaptor.capture());
+        var problem = Assertions.assertThrows(ThrowableProblem.class, () -> errandService.patchErrand(id, patchDTO, "\"2\""));
+
+        assertEquals(Status.PRECONDITION_FAILED, problem.getStatus());
+        verify(errandRepositoryMock, never()).save(any());
+        verify(processEngineServiceMock, never()).scheduleUpdateProcess(any());
+    }
 
-        assertTrue(errandCaptor.getValue().getStakeholders().contains(EntityDtoMapper.INSTANCE.dtoToStakeholder(patchStakeholderDTO)));
+    @Test
+    void patchErrandWithStakeholder() {
+        Errand errand = mockErrandFindById();
+        StakeholderDTO patchStakeholderDTO = createStakeholderDTO(getRandomStakeholderType(), List.of(getRandomStakeholderRole()));
+        doAnswer(invocation -> {
+            Stakeholder stakeholder = invocation.getArgument(0);
+            stakeholder.setId(3L);
+            return stakeholder;
+        }).when(stakeholderRepositoryMock).save(any());
+
+        Stakeholder result = errandService.patchErrand(errand.getId(), patchStakeholderDTO, null);
+        assertEquals(3L, result.getId());
+        assertEquals(errand, result.getErrand());
+
+        verify(stakeholderRepositoryMock, times(1)).save(any());
+        verify(errandRepositoryMock, never()).save(any());
+        verify(processEngineServiceMock, times(1)).scheduleUpdateProcess(errand.getId());
     }
 
     @Test
@@ -175,7 +239,7 @@ class ErrandServiceTest {
 
         Stakeholder stakeholder = errand.getStakeholders().get(0);
 
-        errandService.deleteStakeholderOnErrand(errandId, stakeholder.getId());
+        errandService.deleteStakeholderOnErrand(errandId, stakeholder.getId(), null);
 
         ArgumentCaptor<Errand> errandCaptor = ArgumentCaptor.forClass(Errand.class);
         verify(errandRepositoryMock).save(errandCaptor.capture());
@@ -196,7 +260,7 @@ class ErrandServiceTest {
         patchedErrand.getStatuses().add(EntityDtoMapper.INSTANCE.dtoToStatus(statusDTO));
         doReturn(patchedErrand).when(errandRepositoryMock).save(patchedErrand);
 
-        errandService.patchErrand(errand.getId(), statusDTO);
+        errandService.patchErrand(errand.getId(), statusDTO, null);
 
         verify(errandRepositoryMock, times(1)).save(patchedErrand);
     }
@@ -211,7 +275,7 @@ class ErrandServiceTest {
         patchedErrand.setStatuses(statusDTOList.stream().map(EntityDtoMapper.INSTANCE::dtoToStatus).toList());
         doReturn(patchedErrand).when(errandRepositoryMock).save(patchedErrand);
 
-        errandService.putStatusesOnErrand(errand.getId(), statusDTOList);
+        errandService.putStatusesOnErrand(errand.getId(), statusDTOList, null);
 
         verify(errandRepositoryMock, times(1)).save(patchedErrand);
     }
@@ -220,7 +284,7 @@ class ErrandServiceTest {
     void putAttachmentsOnErrand() {
         Errand errand = mockErrandFindById();
         List<AttachmentDTO> attachmentDTOList = List.of(createAttachmentDTO(AttachmentCategory.SIGNATURE), createAttachmentDTO(AttachmentCategory.PASSPORT_PHOTO), createAttachmentDTO(AttachmentCategory.MEDICAL_CONFIRMATION));
-        errandService.putAttachmentsOnErrand(errand.getId(), attachmentDTOList);
+        errandService.putAttachmentsOnErrand(errand.getId(), attachmentDTOList, null);
 
         verify(errandRepositoryMock, times(1)).save(errandCaptor.capture());
         Errand persistedErrand = errandCaptor.getValue();
@@ -232,7 +296,7 @@ class ErrandServiceTest {
     void putStakeholdersOnErrand() {
         Errand errand = mockErrandFindById();
         List<StakeholderDTO> stakeholderDTOList = List.of(createStakeholderDTO(getRandomStakeholderType(), List.of(getRandomStakeholderRole())), createStakeholderDTO(getRandomStakeholderType(), List.of(getRandomStakeholderRole())), createStakeholderDTO(getRandomStakeholderType(), List.of(getRandomStakeholderRole())));
-        errandService.putStakeholdersOnErrand(errand.getId(), stakeholderDTOList);
+        errandService.putStakeholdersOnErrand(errand.getId(), stakeholderDTOList, null);
 
         verify(errandRepositoryMock, times(1)).save(errandCaptor.capture());
         Errand persistedErrand = errandCaptor.getValue();
@@ -241,30 +305,23 @@ class ErrandServiceTest {
     }
 
     @Test
-    void patchErrandWithNote() throws JsonProcessingException {
-        Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
-        errand.setId(new Random().nextLong(1, 1000));
-        Note note_1 = new Note();
-        note_1.setId(1L);
-        Note note_2 = new Note();
-        note_2.setId(2L);
-        errand.setNotes(List.of(note_1, note_2));
-        doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(any());
-
+    void patchErrandWithNote() {
+        Errand errand = mockErrandFindById();
         NoteDTO patchNoteDTO = createNoteDTO();
+        doAnswer(invocation -> {
+            Note note = invocation.getArgument(0);
+            note.setId(3L);
+            return note;
+        }).when(noteRepositoryMock).save(any());
 
-        Errand patchedErrandResult = OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(errand), Errand.class);
-        Note noteResult = EntityDtoMapper.INSTANCE.dtoToNote(patchNoteDTO);
-        noteResult.setId(3L);
-        patchedErrandResult.getNotes().add(noteResult);
-        doReturn(patchedErrandResult).when(errandRepositoryMock).save(any());
-
-        Note result = errandService.patchErrand(errand.getId(), patchNoteDTO);
+        Note result = errandService.patchErrand(errand.getId(), patchNoteDTO, null);
         assertEquals(3L, result.getId());
+        assertEquals(errand, result.getErrand());
+        assertEquals(patchNoteDTO.getText(), result.getText());
 
-        verify(errandRepositoryMock, times(1)).save(errandCaptor.capture());
-
-        assertTrue(errandCaptor.getValue().getNotes().contains(EntityDtoMapper.INSTANCE.dtoToNote(patchNoteDTO)));
+        verify(noteRepositoryMock, times(1)).save(any());
+        verify(errandRepositoryMock, never()).save(any());
+        verify(processEngineServiceMock, times(1)).scheduleUpdateProcess(errand.getId());
     }
 
     @Test
@@ -276,56 +333,132 @@ class ErrandServiceTest {
         patchedErrand.getMessageIds().add(message);
         doReturn(patchedErrand).when(errandRepositoryMock).save(patchedErrand);
 
-        errandService.patchErrandWithMessage(errand.getId(), List.of(message));
+        errandService.patchErrandWithMessage(errand.getId(), List.of(message), null);
 
         verify(errandRepositoryMock, times(1)).save(patchedErrand);
     }
 
     @Test
-    void findAllWithoutDuplicates() {
-        ErrandDTO errandDTO = createErrandDTO();
-        List<Errand> returnErrands = Stream.of(errandDTO, errandDTO, errandDTO, errandDTO, errandDTO)
-                .map(EntityDtoMapper.INSTANCE::dtoToErrand)
-                .toList();
+    void findAll() {
+        Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
+        errand.setId(new Random().nextLong(1, 1000));
 
-        doReturn(returnErrands).when(errandRepositoryMock).findAll(any(Specification.class));
-        doReturn(new PageImpl<>(List.of(returnErrands.get(0)))).when(errandRepositoryMock).findAllByIdIn(anyList(), any(Pageable.class));
+        doReturn(new PageImpl<>(List.of(errand))).when(errandRepositoryMock).findAllPaged(any(), any(Pageable.class));
 
         Specification<Errand> specification = new FilterSpecification<>("(stakeholders.firstName ~ '*kim*' or stakeholders.lastName ~ '*kim*' or stakeholders.contactInformation.value ~ '*kim*')");
         Pageable pageable = PageRequest.of(0, 20);
-        errandService.findAll(specification, new HashMap<>(), pageable);
+        var result = errandService.findAll(specification, Map.of("key", "value"), EnumSet.allOf(ErrandAssociation.class), pageable);
 
-        verify(errandRepositoryMock, times(1)).findAllByIdIn(idListCapture.capture(), any(Pageable.class));
+        verify(errandRepositoryMock, times(1)).findAllPaged(any(), pageableCaptor.capture());
 
-        assertEquals(1, idListCapture.getValue().size());
-        assertEquals(errandDTO.getId(), idListCapture.getValue().get(0));
+        assertEquals(pageable, pageableCaptor.getValue());
+        assertEquals(1, result.getTotalElements());
+        assertEquals(errand.getId(), result.getContent().get(0).getId());
     }
 
     @Test
-    void patchErrandWithAttachment() throws IOException {
+    void findAllNotFound() {
+        doReturn(Page.empty()).when(errandRepositoryMock).findAllPaged(any(), any(Pageable.class));
+
+        Pageable pageable = PageRequest.of(0, 20);
+        Map<String, String> extraParameters = Map.of("key", "value");
+        ThrowableProblem problem = Assertions.assertThrows(ThrowableProblem.class, () -> errandService.findAll(null, extraParameters, EnumSet.allOf(ErrandAssociation.class), pageable));
+
+        assertEquals(Status.NOT_FOUND, problem.getStatus());
+    }
+
+    @Test
+    void search() {
         Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
         errand.setId(new Random().nextLong(1, 1000));
-        Attachment attachment_1 = new Attachment();
-        attachment_1.setId(1L);
-        Attachment attachment_2 = new Attachment();
-        attachment_2.setId(2L);
-        errand.setAttachments(List.of(attachment_1, attachment_2));
-        doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(any());
+        Pageable pageable = PageRequest.of(0, 20);
 
-        AttachmentDTO patchAttachmentDTO = createAttachmentDTO(AttachmentCategory.SIGNATURE);
+        doReturn(new PageImpl<>(List.of(errand))).when(errandRepositoryMock).search("Storgatan", pageable);
 
-        Errand patchedErrandResult = OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(errand), Errand.class);
-        Attachment attachmentResult = EntityDtoMapper.INSTANCE.dtoToAttachment(patchAttachmentDTO);
-        attachmentResult.setId(3L);
-        patchedErrandResult.getAttachments().add(attachmentResult);
-        doReturn(patchedErrandResult).when(errandRepositoryMock).save(any());
+        var result = errandService.search("Storgatan", EnumSet.of(ErrandAssociation.STAKEHOLDERS), pageable);
 
-        Attachment result = errandService.patchErrand(errand.getId(), patchAttachmentDTO);
-        assertEquals(3L, result.getId());
+        assertEquals(1, result.getTotalElements());
+        assertEquals(errand.getId(), result.getContent().get(0).getId());
+        assertNull(result.getContent().get(0).getNotes());
+    }
 
-        verify(errandRepositoryMock, times(1)).save(errandCaptor.capture());
+    @Test
+    void searchNotFound() {
+        Pageable pageable = PageRequest.of(0, 20);
+        doReturn(Page.empty()).when(errandRepositoryMock).search("Storgatan", pageable);
+
+        ThrowableProblem problem = Assertions.assertThrows(ThrowableProblem.class, () -> errandService.search("Storgatan", EnumSet.allOf(ErrandAssociation.class), pageable));
+
+        assertEquals(Status.NOT_FOUND, problem.getStatus());
+    }
+
+    @Test
+    void findAllWithCursor() {
+        List<Errand> errands = Stream.of(1L, 2L, 3L).map(id -> {
+            Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
+            errand.setId(id);
+            return errand;
+        }).toList();
+
+        doReturn(errands).when(errandRepositoryMock).findAllAfter(any(), any(), any(), any(), anyInt());
 
-        assertTrue(errandCaptor.getValue().getAttachments().contains(EntityDtoMapper.INSTANCE.dtoToAttachment(patchAttachmentDTO)));
+        var result = errandService.findAllWithCursor(null, Map.of(), EnumSet.allOf(ErrandAssociation.class), "", PageRequest.of(0, 2));
+
+        verify(errandRepositoryMock).findAllAfter(any(), eq(Sort.Order.asc("id")), isNull(), isNull(), eq(3));
+        assertEquals(2, result.getContent().size());
+        assertEquals(ErrandCursor.first(Sort.unsorted()).next(errands.get(1)), ErrandCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void findAllWithCursorLastPage() {
+        Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
+        errand.setId(5L);
+        String cursor = ErrandCursor.first(Sort.unsorted()).next(errand).encode();
+
+        doReturn(List.of(errand)).when(errandRepositoryMock).findAllAfter(any(), any(), any(), any(), anyInt());
+
+        var result = errandService.findAllWithCursor(null, Map.of(), EnumSet.allOf(ErrandAssociation.class), cursor, PageRequest.of(0, 2));
+
+        verify(errandRepositoryMock).findAllAfter(any(), eq(Sort.Order.asc("id")), eq(5L), eq(5L), eq(3));
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void exportAll() {
+        Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
+        errand.setId(new Random().nextLong(1, 1000));
+
+        doAnswer(invocation -> {
+            Consumer<Errand> consumer = invocation.getArgument(1);
+            consumer.accept(errand);
+            return null;
+        }).when(errandRepositoryMock).streamAll(any(), any());
+
+        List<ErrandDTO> result = new ArrayList<>();
+        errandService.exportAll(null, Map.of(), result::add);
+
+        verify(errandRepositoryMock).streamAll(any(), any());
+        assertEquals(List.of(EntityDtoMapper.INSTANCE.errandToDto(errand)), result);
+    }
+
+    @Test
+    void patchErrandWithAttachment() {
+        Errand errand = mockErrandFindById();
+        AttachmentDTO patchAttachmentDTO = createAttachmentDTO(AttachmentCategory.SIGNATURE);
+        doAnswer(invocation -> {
+            Attachment attachment = invocation.getArgument(0);
+            attachment.setId(3L);
+            return attachment;
+        }).when(attachmentRepositoryMock).save(any());
+
+        Attachment result = errandService.patchErrand(errand.getId(), patchAttachmentDTO, null);
+        assertEquals(3L, result.getId());
+        assertEquals(errand, result.getErrand());
+
+        verify(attachmentRepositoryMock, times(1)).save(any());
+        verify(errandRepositoryMock, never()).save(any());
+        verify(processEngineServiceMock, times(1)).scheduleUpdateProcess(errand.getId());
     }
 
     @Test
@@ -340,7 +473,7 @@ class ErrandServiceTest {
 
         doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(errandId);
 
-        errandService.deleteAttachmentOnErrand(errandId, attachment.getId());
+        errandService.deleteAttachmentOnErrand(errandId, attachment.getId(), null);
 
         ArgumentCaptor<Errand> errandCaptor = ArgumentCaptor.forClass(Errand.class);
         verify(errandRepositoryMock).save(errandCaptor.capture());
@@ -370,31 +503,22 @@ class ErrandServiceTest {
     }
 
     @Test
-    void patchErrandWithDecision() throws JsonProcessingException {
-
-        Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
-        errand.setId(new Random().nextLong(1, 1000));
-        Decision decision_1 = new Decision();
-        decision_1.setId(1L);
-        Decision decision_2 = new Decision();
-        decision_2.setId(2L);
-        errand.setDecisions(List.of(decision_1, decision_2));
-        doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(any());
-
+    void patchErrandWithDecision() {
+        Errand errand = mockErrandFindById();
         DecisionDTO patchDecisionDTO = createDecisionDTO();
+        doAnswer(invocation -> {
+            Decision decision = invocation.getArgument(0);
+            decision.setId(3L);
+            return decision;
+        }).when(decisionRepositoryMock).save(any());
 
-        Errand patchedErrandResult = OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(errand), Errand.class);
-        Decision decisionResult = EntityDtoMapper.INSTANCE.dtoToDecision(patchDecisionDTO);
-        decisionResult.setId(3L);
-        patchedErrandResult.getDecisions().add(decisionResult);
-        doReturn(patchedErrandResult).when(errandRepositoryMock).save(any());
-
-        Decision result = errandService.patchErrand(errand.getId(), patchDecisionDTO);
+        Decision result = errandService.patchErrand(errand.getId(), patchDecisionDTO, null);
         assertEquals(3L, result.getId());
+        assertEquals(errand, result.getErrand());
 
-        verify(errandRepositoryMock, times(1)).save(errandCaptor.capture());
-
-        assertTrue(errandCaptor.getValue().getDecisions().contains(EntityDtoMapper.INSTANCE.dtoToDecision(patchDecisionDTO)));
+        verify(decisionRepositoryMock, times(1)).save(any());
+        verify(errandRepositoryMock, never()).save(any());
+        verify(processEngineServiceMock, times(1)).scheduleUpdateProcess(errand.getId());
     }
 
     @Test
@@ -409,7 +533,7 @@ class ErrandServiceTest {
 
         doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(errandId);
 
-        errandService.deleteDecisionOnErrand(errandId, decision.getId());
+        errandService.deleteDecisionOnErrand(errandId, decision.getId(), null);
 
         ArgumentCaptor<Errand> errandCaptor = ArgumentCaptor.forClass(Errand.class);
         verify(errandRepositoryMock).save(errandCaptor.capture());
@@ -432,7 +556,7 @@ class ErrandServiceTest {
 
         doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(errandId);
 
-        errandService.deleteNoteOnErrand(errandId, note.getId());
+        errandService.deleteNoteOnErrand(errandId, note.getId(), null);
 
         ArgumentCaptor<Errand> errandCaptor = ArgumentCaptor.forClass(Errand.class);
         verify(errandRepositoryMock).save(errandCaptor.capture());
@@ -449,4 +573,11 @@ class ErrandServiceTest {
         doReturn(Optional.of(errand)).when(errandRepositoryMock).findById(any());
         return errand;
     }
+
+    private Errand mockErrandFindForUpdateById() {
+        Errand errand = EntityDtoMapper.INSTANCE.dtoToErrand(createErrandDTO());
+        errand.setId(new Random().nextLong(1, 1000));
+        doReturn(Optional.of(errand)).when(errandRepositoryMock).findForUpdateById(any());
+        return errand;
+    }
 }
@@ -0,0 +1,127 @@
+package se.sundsvall.casedata.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.zalando.problem.Status;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.casedata.integration.db.DecisionRepository;
+import se.sundsvall.casedata.integration.db.ParkingPermitViewRepository;
+import se.sundsvall.casedata.integration.db.ParkingPermitViewUpdater;
+import se.sundsvall.casedata.integration.db.model.Decision;
+import se.sundsvall.casedata.integration.db.model.ParkingPermitView;
+import se.sundsvall.casedata.integration.db.model.enums.DecisionType;
+import se.sundsvall.casedata.integration.db.model.enums.StakeholderRole;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ParkingPermitServiceTest {
+
+    @Mock
+    private ParkingPermitViewRepository parkingPermitViewRepositoryMock;
+    @Mock
+    private ParkingPermitViewUpdater parkingPermitViewUpdaterMock;
+    @Mock
+    private DecisionRepository decisionRepositoryMock;
+
+    @InjectMocks
+    private ParkingPermitService parkingPermitService;
+
+    @Test
+    void findAll() {
+        var decision = new Decision();
+        decision.setId(10L);
+        decision.setDecisionType(DecisionType.FINAL);
+        doReturn(List.of(new ParkingPermitView(1L, 10L, "PRH-1", "Active"), new ParkingPermitView(2L, null, "PRH-2", null)))
+                .when(parkingPermitViewRepositoryMock).findAllByOrderByErrandId();
+        doReturn(List.of(decision)).when(decisionRepositoryMock).findAllById(List.of(10L));
+
+        var result = parkingPermitService.findAll(null);
+
+        assertThat(result).hasSize(2);
+        assertEquals(1L, result.get(0).getErrandId());
+        assertEquals("PRH-1", result.get(0).getArtefactPermitNumber());
+        assertEquals("Active", result.get(0).getArtefactPermitStatus());
+        assertEquals(DecisionType.FINAL, result.get(0).getErrandDecision().getDecisionType());
+        assertEquals("PRH-2", result.get(1).getArtefactPermitNumber());
+        assertNull(result.get(1).getErrandDecision());
+    }
+
+    @Test
+    void findAllWithPersonId() {
+        doReturn(List.of(new ParkingPermitView(1L, null, "PRH-1", "Active")))
+                .when(parkingPermitViewRepositoryMock).findAllByStakeholder("personId", StakeholderRole.APPLICANT);
+
+        var result = parkingPermitService.findAll("personId");
+
+        assertThat(result).hasSize(1);
+        verify(parkingPermitViewRepositoryMock).findAllByStakeholder("personId", StakeholderRole.APPLICANT);
+    }
+
+    @Test
+    void findAllNotFound() {
+        doReturn(List.of()).when(parkingPermitViewRepositoryMock).findAllByOrderByErrandId();
+
+        var problem = assertThrows(ThrowableProblem.class, () -> parkingPermitService.findAll(null));
+
+        assertEquals(Status.NOT_FOUND, problem.getStatus());
+        verifyNoInteractions(decisionRepositoryMock);
+    }
+
+    @Test
+    void findByPermitNumber() {
+        var decision = new Decision();
+        decision.setId(10L);
+        decision.setDecisionType(DecisionType.FINAL);
+        doReturn(Optional.of(new ParkingPermitView(1L, 10L, "PRH-1", "Active")))
+                .when(parkingPermitViewRepositoryMock).findFirstByPermitNumberOrderByErrandIdDesc("PRH-1");
+        doReturn(Optional.of(decision)).when(decisionRepositoryMock).findById(10L);
+
+        var result = parkingPermitService.findByPermitNumber("PRH-1");
+
+        assertEquals(1L, result.getErrandId());
+        assertEquals("PRH-1", result.getArtefactPermitNumber());
+        assertEquals("Active", result.getArtefactPermitStatus());
+        assertEquals(DecisionType.FINAL, result.getErrandDecision().getDecisionType());
+    }
+
+    @Test
+    void findByPermitNumberWithoutDecision() {
+        doReturn(Optional.of(new ParkingPermitView(1L, null, "PRH-1", null)))
+                .when(parkingPermitViewRepositoryMock).findFirstByPermitNumberOrderByErrandIdDesc("PRH-1");
+
+        var result = parkingPermitService.findByPermitNumber("PRH-1");
+
+        assertNull(result.getErrandDecision());
+        verifyNoInteractions(decisionRepositoryMock);
+    }
+
+    @Test
+    void findByPermitNumberNotFound() {
+        doReturn(Optional.empty()).when(parkingPermitViewRepositoryMock).findFirstByPermitNumberOrderByErrandIdDesc("PRH-1");
+
+        var problem = assertThrows(ThrowableProblem.class, () -> parkingPermitService.findByPermitNumber("PRH-1"));
+
+        assertEquals(Status.NOT_FOUND, problem.getStatus());
+        assertEquals("Parking permit with permit number: PRH-1 was not found", problem.getDetail());
+    }
+
+    @Test
+    void rebuild() {
+        parkingPermitService.rebuild();
+
+        verify(parkingPermitViewUpdaterMock).rebuild();
+    }
+}
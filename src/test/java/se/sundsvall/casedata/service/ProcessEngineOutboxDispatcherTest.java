@@ -0,0 +1,168 @@
+package se.sundsvall.casedata.service;
+
+import generated.client.processengine.ParkingPermitResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.casedata.integration.db.ErrandRepository;
+import se.sundsvall.casedata.integration.db.ProcessEngineOutboxRepository;
+import se.sundsvall.casedata.integration.db.model.ProcessEngineOutboxEntry;
+import se.sundsvall.casedata.integration.processengine.configuration.ProcessEngineOutboxProperties;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static se.sundsvall.casedata.integration.db.model.enums.ProcessEngineCall.START_PROCESS;
+import static se.sundsvall.casedata.integration.db.model.enums.ProcessEngineCall.UPDATE_PROCESS;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessEngineOutboxDispatcherTest {
+
+    @Mock
+    private ProcessEngineOutboxRepository processEngineOutboxRepositoryMock;
+
+    @Mock
+    private ProcessEngineService processEngineServiceMock;
+
+    @Mock
+    private ErrandRepository errandRepositoryMock;
+
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProcessEngineOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setup() {
+        dispatcher = new ProcessEngineOutboxDispatcher(processEngineOutboxRepositoryMock, processEngineServiceMock, errandRepositoryMock, new ProcessEngineOutboxProperties(), transactionManagerMock, meterRegistry);
+    }
+
+    @Test
+    void dispatch() {
+        var entry = new ProcessEngineOutboxEntry(1L, UPDATE_PROCESS, OffsetDateTime.now());
+        entry.setCreated(OffsetDateTime.now());
+        doReturn(List.of(entry)).when(processEngineOutboxRepositoryMock).findDueForDelivery(any(), eq(50));
+
+        dispatcher.dispatch();
+
+        verify(processEngineServiceMock).updateProcess(1L);
+        verify(processEngineOutboxRepositoryMock).delete(entry);
+        // One transaction to claim the entry and one to remove it, the call is made outside of both
+        verify(transactionManagerMock, times(2)).commit(any());
+        assertEquals(1, meterRegistry.counter("process.engine.outbox.delivered").count());
+        assertEquals(1, meterRegistry.timer("process.engine.outbox.delivery.delay").count());
+    }
+
+    @Test
+    void dispatchLeasesEntries() {
+        var entry = new ProcessEngineOutboxEntry(1L, UPDATE_PROCESS, OffsetDateTime.now());
+        doReturn(List.of(entry)).when(processEngineOutboxRepositoryMock).findDueForDelivery(any(), anyInt());
+        doThrow(ProcessEngineService.PROBLEM).when(processEngineServiceMock).updateProcess(1L);
+        doThrow(new IllegalStateException("Database unavailable")).when(processEngineOutboxRepositoryMock).save(entry);
+
+        var before = OffsetDateTime.now();
+        dispatcher.dispatch();
+
+        // Rescheduling failed, so the entry waits for the lease to expire
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusMinutes(2));
+    }
+
+    @Test
+    void dispatchFailureDoesNotAffectOtherEntries() {
+        var failingEntry = new ProcessEngineOutboxEntry(1L, START_PROCESS, OffsetDateTime.now());
+        var entry = new ProcessEngineOutboxEntry(2L, START_PROCESS, OffsetDateTime.now());
+        var parkingPermitResponse = new ParkingPermitResponse();
+        parkingPermitResponse.setProcessId("processId");
+        doReturn(List.of(failingEntry, entry)).when(processEngineOutboxRepositoryMock).findDueForDelivery(any(), anyInt());
+        doReturn(parkingPermitResponse).when(processEngineServiceMock).startProcess(any());
+        doThrow(new IllegalStateException("Errand is locked")).when(errandRepositoryMock).updateProcessId(1L, "processId");
+
+        dispatcher.dispatch();
+
+        verify(processEngineOutboxRepositoryMock).save(failingEntry);
+        verify(processEngineOutboxRepositoryMock, never()).delete(failingEntry);
+        verify(errandRepositoryMock).updateProcessId(2L, "processId");
+        verify(processEngineOutboxRepositoryMock).delete(entry);
+        assertEquals(1, meterRegistry.counter("process.engine.outbox.delivered").count());
+        assertEquals(1, meterRegistry.counter("process.engine.outbox.failed").count());
+    }
+
+    @Test
+    void dispatchCoalesced() {
+        var entry = new ProcessEngineOutboxEntry(1L, UPDATE_PROCESS, OffsetDateTime.now());
+        entry.setId(10L);
+        var coalescedEntries = List.of(new ProcessEngineOutboxEntry(1L, UPDATE_PROCESS, OffsetDateTime.now()), new ProcessEngineOutboxEntry(1L, UPDATE_PROCESS, OffsetDateTime.now()));
+        doReturn(List.of(entry)).when(processEngineOutboxRepositoryMock).findDueForDelivery(any(), anyInt());
+        doReturn(coalescedEntries).when(processEngineOutboxRepositoryMock).findByErrandIdAndTypeAndIdGreaterThan(1L, UPDATE_PROCESS, 10L);
+
+        dispatcher.dispatch();
+
+        verify(processEngineServiceMock, times(1)).updateProcess(1L);
+        verify(processEngineOutboxRepositoryMock).delete(entry);
+        verify(processEngineOutboxRepositoryMock).deleteAll(coalescedEntries);
+        assertEquals(1, meterRegistry.counter("process.engine.outbox.delivered").count());
+        assertEquals(2, meterRegistry.counter("process.engine.outbox.coalesced").count());
+    }
+
+    @Test
+    void dispatchStartProcess() {
+        var entry = new ProcessEngineOutboxEntry(1L, START_PROCESS, OffsetDateTime.now());
+        entry.setId(10L);
+        var parkingPermitResponse = new ParkingPermitResponse();
+        parkingPermitResponse.setProcessId("processId");
+        doReturn(List.of(entry)).when(processEngineOutboxRepositoryMock).findDueForDelivery(any(), anyInt());
+        doReturn(parkingPermitResponse).when(processEngineServiceMock).startProcess(1L);
+
+        dispatcher.dispatch();
+
+        verify(errandRepositoryMock).updateProcessId(1L, "processId");
+        verify(processEngineServiceMock, never()).updateProcess(any());
+        verify(processEngineOutboxRepositoryMock, never()).findByErrandIdAndTypeAndIdGreaterThan(any(), any(), any());
+        verify(processEngineOutboxRepositoryMock).delete(entry);
+        assertEquals(1, meterRegistry.counter("process.engine.outbox.delivered").count());
+    }
+
+    @Test
+    void dispatchFailure() {
+        var entry = new ProcessEngineOutboxEntry(1L, UPDATE_PROCESS, OffsetDateTime.now());
+        entry.setAttempts(1);
+        doReturn(List.of(entry)).when(processEngineOutboxRepositoryMock).findDueForDelivery(any(), anyInt());
+        doThrow(ProcessEngineService.PROBLEM).when(processEngineServiceMock).updateProcess(1L);
+
+        var before = OffsetDateTime.now();
+        dispatcher.dispatch();
+
+        verify(processEngineOutboxRepositoryMock, never()).delete(any());
+        verify(processEngineOutboxRepositoryMock, never()).deleteAll(any());
+        verify(processEngineOutboxRepositoryMock).save(entry);
+        assertEquals(2, entry.getAttempts());
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(10));
+        assertThat(entry.getLastError()).isNotBlank();
+        assertEquals(1, meterRegistry.counter("process.engine.outbox.failed").count());
+    }
+
+    @Test
+    void backoff() {
+        assertEquals(Duration.ofSeconds(5), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(10), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(40), dispatcher.backoff(4));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(100));
+    }
+}
@@ -9,23 +9,31 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.zalando.problem.DefaultProblem;
 import org.zalando.problem.Status;
 import se.sundsvall.casedata.TestUtil;
+import se.sundsvall.casedata.integration.db.ProcessEngineOutboxRepository;
+import se.sundsvall.casedata.integration.db.model.ProcessEngineOutboxEntry;
+import se.sundsvall.casedata.integration.db.model.enums.ProcessEngineCall;
 import se.sundsvall.casedata.integration.processengine.ProcessEngineClient;
+import se.sundsvall.casedata.integration.processengine.configuration.ProcessEngineOutboxProperties;
 import se.sundsvall.casedata.service.util.Constants;
 import se.sundsvall.dept44.exception.ClientProblem;
 import se.sundsvall.dept44.exception.ServerProblem;
 
+import java.time.OffsetDateTime;
 import java.util.Random;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class ProcessEngineServiceTest {
@@ -33,12 +41,21 @@ class ProcessEngineServiceTest {
     @Mock
     private ProcessEngineClient processEngineClientMock;
 
+    @Mock
+    private ProcessEngineOutboxRepository processEngineOutboxRepositoryMock;
+
+    @Spy
+    private ProcessEngineOutboxProperties processEngineOutboxProperties = new ProcessEngineOutboxProperties();
+
     @InjectMocks
     private ProcessEngineService processEngineService;
 
     @Captor
     private ArgumentCaptor<CaseObject> caseObjectArgumentCaptor;
 
+    @Captor
+    private ArgumentCaptor<ProcessEngineOutboxEntry> outboxEntryArgumentCaptor;
+
     @Test
     void startProcess() {
         TestUtil.mockStartProcess(processEngineClientMock);
@@ -63,6 +80,33 @@ class ProcessEngineServiceTest {
         Assertions.assertNull(caseObjectArgumentCaptor.getValue().getProcessName());
     }
 
+    @Test
+    void scheduleUpdateProcess() {
+        Long caseId = new Random().nextLong();
+        var before = OffsetDateTime.now();
+        processEngineService.scheduleUpdateProcess(caseId);
+
+        verify(processEngineOutboxRepositoryMock, times(1)).save(outboxEntryArgumentCaptor.capture());
+        verifyNoInteractions(processEngineClientMock);
+        assertEquals(caseId, outboxEntryArgumentCaptor.getValue().getErrandId());
+        assertEquals(ProcessEngineCall.UPDATE_PROCESS, outboxEntryArgumentCaptor.getValue().getType());
+        assertEquals(0, outboxEntryArgumentCaptor.getValue().getAttempts());
+        assertThat(outboxEntryArgumentCaptor.getValue().getNextAttemptAt()).isAfterOrEqualTo(before.plus(processEngineOutboxProperties.getCoalesceWindow()));
+    }
+
+    @Test
+    void scheduleStartProcess() {
+        Long caseId = new Random().nextLong();
+        var before = OffsetDateTime.now();
+        processEngineService.scheduleStartProcess(caseId);
+
+        verify(processEngineOutboxRepositoryMock, times(1)).save(outboxEntryArgumentCaptor.capture());
+        verifyNoInteractions(processEngineClientMock);
+        assertEquals(caseId, outboxEntryArgumentCaptor.getValue().getErrandId());
+        assertEquals(ProcessEngineCall.START_PROCESS, outboxEntryArgumentCaptor.getValue().getType());
+        assertThat(outboxEntryArgumentCaptor.getValue().getNextAttemptAt()).isAfterOrEqualTo(before);
+    }
+
     @Test
     void badRequest() {
         doThrow(ClientProblem.class).when(processEngineClientMock).startProcess(any());
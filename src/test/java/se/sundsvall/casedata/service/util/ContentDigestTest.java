@@ -0,0 +1,20 @@
+package se.sundsvall.casedata.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContentDigestTest {
+
+    @Test
+    void of() {
+        assertEquals("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", ContentDigest.of("test".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void ofEmptyContent() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ContentDigest.of(new byte[0]));
+    }
+}
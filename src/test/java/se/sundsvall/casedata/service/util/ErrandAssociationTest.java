@@ -0,0 +1,47 @@
+package se.sundsvall.casedata.service.util;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Status;
+import org.zalando.problem.ThrowableProblem;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ErrandAssociationTest {
+
+    @Test
+    void fromFieldsWithoutFields() {
+        assertEquals(EnumSet.allOf(ErrandAssociation.class), ErrandAssociation.fromFields(null));
+        assertEquals(EnumSet.allOf(ErrandAssociation.class), ErrandAssociation.fromFields(List.of()));
+    }
+
+    @Test
+    void fromFields() {
+        var result = ErrandAssociation.fromFields(List.of("stakeholders", " messageIds", "EXTRAPARAMETERS"));
+
+        assertEquals(EnumSet.of(ErrandAssociation.STAKEHOLDERS, ErrandAssociation.MESSAGE_IDS, ErrandAssociation.EXTRA_PARAMETERS), result);
+    }
+
+    @Test
+    void fromFieldsWithUnknownField() {
+        var fields = List.of("stakeholders", "unknown");
+        var problem = assertThrows(ThrowableProblem.class, () -> ErrandAssociation.fromFields(fields));
+
+        assertEquals(Status.BAD_REQUEST, problem.getStatus());
+    }
+
+    @Test
+    void fieldsDescriptionListsAllFields() {
+        var validValues = Arrays.stream(ErrandAssociation.values())
+                .map(ErrandAssociation::getField)
+                .collect(Collectors.joining(", "));
+
+        assertThat(ErrandAssociation.FIELDS_DESCRIPTION).endsWith("Valid values: " + validValues);
+    }
+}
@@ -0,0 +1,68 @@
+package se.sundsvall.casedata.service.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.zalando.problem.Status;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.casedata.integration.db.model.Errand;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ErrandCursorTest {
+
+    @Test
+    void firstWithoutSort() {
+        var cursor = ErrandCursor.first(Sort.unsorted());
+
+        assertEquals(Sort.Order.asc("id"), cursor.order());
+        assertNull(cursor.lastValue());
+        assertNull(cursor.lastId());
+    }
+
+    @Test
+    void firstWithUnsupportedSort() {
+        var sort = Sort.by("description");
+        var problem = assertThrows(ThrowableProblem.class, () -> ErrandCursor.first(sort));
+
+        assertEquals(Status.BAD_REQUEST, problem.getStatus());
+    }
+
+    @Test
+    void encodeAndDecode() {
+        var errand = new Errand();
+        errand.setId(42L);
+        errand.setCreated(OffsetDateTime.now());
+
+        var cursor = ErrandCursor.first(Sort.by(Sort.Direction.DESC, "created")).next(errand);
+        var decoded = ErrandCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertEquals(Sort.Order.desc("created"), decoded.order());
+        assertEquals(errand.getCreated(), decoded.lastValue());
+        assertEquals(42L, decoded.lastId());
+    }
+
+    @Test
+    void encodeAndDecodeErrandNumber() {
+        var errand = new Errand();
+        errand.setId(7L);
+        errand.setErrandNumber("PRH-2022-000001");
+
+        var decoded = ErrandCursor.decode(ErrandCursor.first(Sort.by("errandNumber")).next(errand).encode());
+
+        assertEquals("PRH-2022-000001", decoded.lastValue());
+        assertEquals(7L, decoded.lastId());
+    }
+
+    @Test
+    void decodeInvalidCursor() {
+        var problem = assertThrows(ThrowableProblem.class, () -> ErrandCursor.decode("not a cursor"));
+
+        assertEquals(Status.BAD_REQUEST, problem.getStatus());
+    }
+}
@@ -0,0 +1,65 @@
+package se.sundsvall.casedata.service.util;
+
+import org.junit.jupiter.api.Test;
+import se.sundsvall.casedata.integration.db.model.Errand;
+import se.sundsvall.casedata.integration.db.model.ErrandActivity;
+
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrandETagTest {
+
+    @Test
+    void of() {
+        assertEquals("\"3\"", ErrandETag.of(3));
+    }
+
+    @Test
+    void ofAssociations() {
+        assertEquals("\"3-statuses.notes\"", ErrandETag.of(3, EnumSet.of(ErrandAssociation.NOTES, ErrandAssociation.STATUSES)));
+        assertEquals("\"3-\"", ErrandETag.of(3, Set.of()));
+        assertEquals("\"3\"", ErrandETag.of(3, EnumSet.allOf(ErrandAssociation.class)));
+    }
+
+    @Test
+    void versionOf() {
+        var errand = new Errand();
+        errand.setVersion(3);
+        errand.setActivity(new ErrandActivity(1L, 2L, OffsetDateTime.now(), "user", "client"));
+
+        assertEquals(5, ErrandETag.versionOf(errand));
+    }
+
+    @Test
+    void versionOfErrandWithoutActivity() {
+        var errand = new Errand();
+        errand.setVersion(3);
+
+        assertEquals(3, ErrandETag.versionOf(errand));
+    }
+
+    @Test
+    void matches() {
+        assertTrue(ErrandETag.matches(null, 3));
+        assertTrue(ErrandETag.matches("", 3));
+        assertTrue(ErrandETag.matches("*", 3));
+        assertTrue(ErrandETag.matches("\"3\"", 3));
+        assertTrue(ErrandETag.matches("\"2\", \"3\"", 3));
+        assertTrue(ErrandETag.matches("\"3-statuses.notes\"", 3));
+    }
+
+    @Test
+    void doesNotMatch() {
+        assertFalse(ErrandETag.matches("\"2\"", 3));
+        assertFalse(ErrandETag.matches("3", 3));
+        assertFalse(ErrandETag.matches("\"2-statuses\"", 3));
+        assertFalse(ErrandETag.matches("\"33\"", 3));
+        // Weak ETags never match If-Match
+        assertFalse(ErrandETag.matches("W/\"3\"", 3));
+    }
+}
@@ -0,0 +1,37 @@
+package se.sundsvall.casedata.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpooledContentTest {
+
+    @Test
+    void of() throws IOException {
+        var bytes = "test".getBytes(StandardCharsets.UTF_8);
+
+        try (var content = SpooledContent.of(new ByteArrayInputStream(bytes))) {
+            assertEquals(ContentDigest.of(bytes), content.getDigest());
+            assertEquals(4, content.getSize());
+            try (var inputStream = content.openInputStream()) {
+                assertArrayEquals(bytes, inputStream.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void closeDeletesFile() throws IOException {
+        var content = SpooledContent.of(new ByteArrayInputStream(new byte[] {1}));
+
+        content.close();
+
+        assertThrows(NoSuchFileException.class, content::openInputStream);
+    }
+}
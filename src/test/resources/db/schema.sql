@@ -1,6 +1,22 @@
 
+    create sequence appeal_seq start with 1 increment by 50;
+
+    create sequence attachment_content_seq start with 1 increment by 50;
+
+    create sequence attachment_seq start with 1 increment by 50;
+
+    create sequence decision_seq start with 1 increment by 50;
+
+    create sequence errand_seq start with 1 increment by 50;
+
+    create sequence facility_seq start with 1 increment by 50;
+
+    create sequence note_seq start with 1 increment by 50;
+
+    create sequence stakeholder_seq start with 1 increment by 50;
+
     create table appeal (
-       id bigint not null auto_increment,
+       id bigint not null,
         created datetime(6),
         updated datetime(6),
         version integer,
@@ -17,22 +33,35 @@
     ) engine=InnoDB;
 
     create table attachment (
-       id bigint not null auto_increment,
+       id bigint not null,
         created datetime(6),
         updated datetime(6),
         version integer,
         category varchar(255),
+        content_digest varchar(64),
+        content_size bigint,
         extension varchar(255),
-        file longtext,
         mime_type varchar(255),
         name varchar(255),
         note varchar(1000),
+        attachment_content_id bigint,
         errand_id bigint,
         decision_id bigint,
         appeal_id bigint,
         primary key (id)
     ) engine=InnoDB;
 
+    create table attachment_content (
+       id bigint not null,
+        created datetime(6),
+        updated datetime(6),
+        version integer,
+        digest varchar(64) not null,
+        file longblob,
+        reference_count integer not null,
+        primary key (id)
+    ) engine=InnoDB;
+
     create table attachment_extra_parameters (
        attachment_id bigint not null,
         extra_parameter_value varchar(255),
@@ -40,8 +69,24 @@
         primary key (attachment_id, extra_parameter_key)
     ) engine=InnoDB;
 
-    create table decision (
+    create table attachment_upload (
+       id bigint not null auto_increment,
+        created datetime(6),
+        errand_id bigint not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table attachment_upload_part (
        id bigint not null auto_increment,
+        file longblob,
+        part_number integer not null,
+        size bigint not null,
+        attachment_upload_id bigint not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table decision (
+       id bigint not null,
         created datetime(6),
         updated datetime(6),
         version integer,
@@ -75,7 +120,7 @@
     ) engine=InnoDB;
 
     create table errand (
-       id bigint not null auto_increment,
+       id bigint not null,
         created datetime(6),
         updated datetime(6),
         version integer,
@@ -99,6 +144,15 @@
         primary key (id)
     ) engine=InnoDB;
 
+    create table errand_activity (
+       errand_id bigint not null,
+        child_changes bigint not null,
+        last_child_change datetime(6),
+        last_child_change_by varchar(255),
+        last_child_change_by_client varchar(255),
+        primary key (errand_id)
+    ) engine=InnoDB;
+
     create table errand_extra_parameters (
        errand_id bigint not null,
         extra_parameter_value varchar(255),
@@ -111,6 +165,13 @@
         message_ids varchar(255)
     ) engine=InnoDB;
 
+    create table errand_number_sequence (
+       abbreviation varchar(255) not null,
+        year integer not null,
+        last_number bigint not null,
+        primary key (abbreviation, year)
+    ) engine=InnoDB;
+
     create table errand_statuses (
        errand_id bigint not null,
         date_time datetime(6),
@@ -121,7 +182,7 @@
     ) engine=InnoDB;
 
     create table facility (
-       id bigint not null auto_increment,
+       id bigint not null,
         created datetime(6),
         updated datetime(6),
         version integer,
@@ -155,7 +216,7 @@
     ) engine=InnoDB;
 
     create table note (
-       id bigint not null auto_increment,
+       id bigint not null,
         created datetime(6),
         updated datetime(6),
         version integer,
@@ -174,8 +235,27 @@
         primary key (note_id, extra_parameter_key)
     ) engine=InnoDB;
 
-    create table stakeholder (
+    create table parking_permit_view (
+       errand_id bigint not null,
+        decision_id bigint,
+        permit_number varchar(255),
+        permit_status varchar(255),
+        primary key (errand_id)
+    ) engine=InnoDB;
+
+    create table process_engine_outbox (
        id bigint not null auto_increment,
+        attempts integer not null,
+        created datetime(6),
+        errand_id bigint not null,
+        last_error varchar(1000),
+        next_attempt_at datetime(6) not null,
+        type varchar(255) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table stakeholder (
+       id bigint not null,
         created datetime(6),
         updated datetime(6),
         version integer,
@@ -233,9 +313,33 @@
         primary key (stakeholder_id, role_order)
     ) engine=InnoDB;
 
+    alter table attachment_content 
+       add constraint UK_attachment_content_digest unique (digest);
+
+    alter table attachment_upload_part 
+       add constraint UK_attachment_upload_part_part_number unique (attachment_upload_id, part_number);
+
     alter table errand 
        add constraint UK_errand_errand_number unique (errand_number);
 
+    create index IDX_attachment_extra_parameters_key_value on attachment_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+    create index IDX_decision_extra_parameters_key_value on decision_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+    create index IDX_errand_extra_parameters_key_value on errand_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+    create index IDX_facility_extra_parameters_key_value on facility_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+    create index IDX_note_extra_parameters_key_value on note_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+    create index IDX_parking_permit_view_permit_number on parking_permit_view (permit_number);
+
+    create index IDX_process_engine_outbox_errand_id on process_engine_outbox (errand_id);
+
+    create index IDX_stakeholder_extra_parameters_key_value on stakeholder_extra_parameters (extra_parameter_key, extra_parameter_value);
+
+    create index IDX_stakeholder_person_id on stakeholder (person_id);
+
     alter table appeal 
        add constraint FK_appeal_appealed_by_id 
        foreign key (appealed_by_id) 
@@ -251,6 +355,11 @@
        foreign key (appeal_id) 
        references appeal (id);
 
+    alter table attachment 
+       add constraint FK_attachment_attachment_content_id 
+       foreign key (attachment_content_id) 
+       references attachment_content (id);
+
     alter table attachment 
        add constraint FK_attachment_errand_id 
        foreign key (errand_id) 
@@ -271,6 +380,11 @@
        foreign key (attachment_id) 
        references attachment (id);
 
+    alter table attachment_upload_part 
+       add constraint FK_attachment_upload_part_attachment_upload_id 
+       foreign key (attachment_upload_id) 
+       references attachment_upload (id);
+
     alter table decision 
        add constraint FK_decision_appeal_id 
        foreign key (appeal_id) 